@@ -1,14 +1,31 @@
 package project.plantify.AI.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import project.plantify.AI.exceptions.IdentificationJobNotFoundException;
+import project.plantify.AI.exceptions.IdentificationQueueFullException;
+import project.plantify.AI.exceptions.InvalidBatchRequestException;
+import project.plantify.AI.exceptions.PlantNetUnavailableException;
+import project.plantify.AI.mappers.PhotoAnalysisMapper;
+import project.plantify.AI.payloads.request.ObservationRequest;
 import project.plantify.AI.payloads.request.PhotoRequest;
+import project.plantify.AI.payloads.response.IdentificationJobResponse;
 import project.plantify.AI.payloads.response.PhotoAnalysisResponse;
 import project.plantify.AI.payloads.response.PhotoAnalysisResponseToFrontend;
 import project.plantify.AI.services.AIService;
+import project.plantify.AI.services.BatchIdentificationService;
+import project.plantify.AI.services.IdentificationJobService;
+import project.plantify.guide.exceptions.ErrorMessage;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -19,14 +36,78 @@ public class AIController {
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private PhotoAnalysisMapper photoAnalysisMapper;
+
+    @Autowired
+    private IdentificationJobService identificationJobService;
+
+    @Autowired
+    private BatchIdentificationService batchIdentificationService;
+
     @PostMapping(value = "/getSpecies")
     public ResponseEntity<PhotoAnalysisResponseToFrontend> getSpecies(@RequestPart("images") List<MultipartFile> images,
                                                                       @RequestPart("organs") String organs,
                                                                       @RequestPart("lang") String lang,
                                                                       @RequestPart("nbresults") String nbresults) {
         PhotoAnalysisResponse response = this.aiService.analyzePhoto(images, organs, lang, nbresults);
-        PhotoAnalysisResponseToFrontend frontendResponse = new PhotoAnalysisResponseToFrontend(response.getBestMatch(), response.getResults());
+        PhotoAnalysisResponseToFrontend frontendResponse = photoAnalysisMapper.toFrontend(response);
         return ResponseEntity.ok(frontendResponse);
     }
 
+    // Asynchronous variant of getSpecies: answers 202 with a job id, the result is then polled
+    // from /jobs/{id} or pushed over the /jobs/{id}/events SSE stream.
+    @PostMapping(value = "/jobs")
+    public ResponseEntity<IdentificationJobResponse> submitJob(@RequestPart("images") List<MultipartFile> images,
+                                                               @RequestPart("organs") String organs,
+                                                               @RequestPart("lang") String lang,
+                                                               @RequestPart("nbresults") String nbresults) {
+        IdentificationJobResponse job = this.identificationJobService.submit(images, organs, lang, nbresults);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/plantify/ai/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<IdentificationJobResponse> getJob(@PathVariable("id") String id) {
+        return ResponseEntity.ok(this.identificationJobService.get(id));
+    }
+
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getJobEvents(@PathVariable("id") String id) {
+        return this.identificationJobService.events(id);
+    }
+
+    // Survey batch: "observations" is a JSON list of {id, organs}, the photos of each observation
+    // are sent as "images.<id>" parts. One NDJSON line is streamed per observation as it finishes.
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter identifyBatch(@RequestPart("observations") List<ObservationRequest> observations,
+                                             @RequestPart("lang") String lang,
+                                             @RequestPart("nbresults") String nbresults,
+                                             MultipartHttpServletRequest request) {
+        return this.batchIdentificationService.identify(observations, request.getMultiFileMap(), lang, nbresults);
+    }
+
+    @ExceptionHandler(IdentificationQueueFullException.class)
+    ResponseEntity<ErrorMessage> handle(IdentificationQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ErrorMessage(e.getMessage()));
+    }
+
+    @ExceptionHandler(IdentificationJobNotFoundException.class)
+    ResponseEntity<ErrorMessage> handle(IdentificationJobNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMessage(e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidBatchRequestException.class)
+    ResponseEntity<ErrorMessage> handle(InvalidBatchRequestException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMessage(e.getMessage()));
+    }
+
+    @ExceptionHandler(PlantNetUnavailableException.class)
+    ResponseEntity<ErrorMessage> handle(PlantNetUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorMessage(e.getMessage()));
+    }
+
 }
@@ -0,0 +1,7 @@
+package project.plantify.AI.exceptions;
+
+public class IdentificationJobNotFoundException extends RuntimeException {
+    public IdentificationJobNotFoundException(String message) {
+        super(message);
+    }
+}
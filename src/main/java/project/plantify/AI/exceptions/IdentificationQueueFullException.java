@@ -0,0 +1,7 @@
+package project.plantify.AI.exceptions;
+
+public class IdentificationQueueFullException extends RuntimeException {
+    public IdentificationQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package project.plantify.AI.exceptions;
+
+public class InvalidBatchRequestException extends RuntimeException {
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package project.plantify.AI.exceptions;
+
+public class PlantNetUnavailableException extends RuntimeException {
+    public PlantNetUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
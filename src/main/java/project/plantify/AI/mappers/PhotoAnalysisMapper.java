@@ -0,0 +1,16 @@
+package project.plantify.AI.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValueMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+import project.plantify.AI.payloads.response.PhotoAnalysisResponse;
+import project.plantify.AI.payloads.response.PhotoAnalysisResponseToFrontend;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        nullValueIterableMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PhotoAnalysisMapper {
+
+    PhotoAnalysisResponseToFrontend toFrontend(PhotoAnalysisResponse response);
+}
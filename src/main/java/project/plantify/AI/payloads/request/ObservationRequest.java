@@ -0,0 +1,15 @@
+package project.plantify.AI.payloads.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObservationRequest {
+    private String id;
+    private String organs;
+}
@@ -0,0 +1,17 @@
+package project.plantify.AI.payloads.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIdentificationResponse {
+    private String observationId;
+    private String status;
+    private String message;
+    private PhotoAnalysisResponseToFrontend result;
+}
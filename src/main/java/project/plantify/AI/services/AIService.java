@@ -1,5 +1,8 @@
 package project.plantify.AI.services;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,11 +14,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import project.plantify.AI.exceptions.PlantNetUnavailableException;
 import project.plantify.AI.payloads.response.PhotoAnalysisResponse;
+import project.plantify.upstream.SingleFlight;
+import project.plantify.upstream.UpstreamCircuitBreakers;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class AIService {
@@ -23,38 +32,123 @@ public class AIService {
     @Qualifier("AI")
     private WebClient webClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${plant.net.api.key}")
     private String API_KEY;
 
+    @Value("${plant.net.api.url}")
+    private String plantNetUrl;
+
+    @Autowired
+    private UpstreamCircuitBreakers upstreamCircuitBreakers;
+
+    @Autowired
+    private ImagePreprocessor imagePreprocessor;
+
+    @Autowired
+    private UploadSpool uploadSpool;
+
+    @Autowired
+    private IdentificationCache identificationCache;
+
+    private SingleFlight<String, PhotoAnalysisResponse> identificationFlight;
+
+    // Path of the identify endpoint as the circuit breaker filter sees it.
+    private String identifyPath;
+
+    @PostConstruct
+    void initSingleFlight() {
+        identificationFlight = new SingleFlight<>("plantnet.identify", meterRegistry);
+        identifyPath = UriComponentsBuilder.fromUriString(plantNetUrl).path("/all").build().getPath();
+    }
+
+    // Exact repeats are answered before any image work; near-duplicates after preprocessing has
+    // produced their perceptual hashes. Concurrent identical uploads share one PlantNet call.
     public PhotoAnalysisResponse analyzePhoto(List<MultipartFile> images, String orgnas, String lang, String nbresults) {
+        checkPlantNetAvailable();
+        List<UploadSpool.SpooledUpload> uploads = uploadSpool.spool(images);
+        return analyzeSpooled(uploads, orgnas, lang, nbresults, () -> uploads.forEach(UploadSpool.SpooledUpload::close));
+    }
+
+    // release runs once the spooled files are no longer read. If this call starts the PlantNet
+    // request, that is when the request finishes: it keeps streaming the files for every caller
+    // sharing it even after this one has been interrupted or has timed out.
+    public PhotoAnalysisResponse analyzeSpooled(List<UploadSpool.SpooledUpload> uploads, String orgnas, String lang, String nbresults,
+                                                Runnable release) {
+        AtomicBoolean releasedByRequest = new AtomicBoolean();
         try {
+            checkPlantNetAvailable();
+            String parameters = IdentificationCache.parameters(orgnas, lang, nbresults);
+            String key = IdentificationCache.key(parameters, uploads.stream()
+                    .map(upload -> IdentificationCache.contentHash(upload.file()))
+                    .toList());
+            Optional<PhotoAnalysisResponse> cached = identificationCache.findExact(key);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
+            List<ImagePreprocessor.PreparedImage> prepared = imagePreprocessor.prepare(uploads);
+            Long[] perceptualHashes = prepared.stream().map(ImagePreprocessor.PreparedImage::perceptualHash).toArray(Long[]::new);
+            cached = identificationCache.findSimilar(parameters, perceptualHashes);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
             MultipartBodyBuilder builder = new MultipartBodyBuilder();
 
-            for (MultipartFile image : images) {
-                builder.part("images", image.getResource())
-                    .filename(Objects.requireNonNull(image.getOriginalFilename()));
+            for (ImagePreprocessor.PreparedImage image : prepared) {
+                builder.part("images", image.content())
+                    .filename(Objects.requireNonNull(image.filename()));
             }
             builder.part("organs", orgnas);
 
-            PhotoAnalysisResponse response = webClient.post()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/all")
-                            .queryParam("nb-results", nbresults)
-                            .queryParam("lang", lang)
-                            .queryParam("api-key", API_KEY)
-                            .build())
-                    .contentType(MediaType.MULTIPART_FORM_DATA)
-                    .body(BodyInserters.fromMultipartData(builder.build()))
-                    .retrieve()
-                    .bodyToMono(PhotoAnalysisResponse.class)
+            PhotoAnalysisResponse response = identificationFlight.execute(key, () -> {
+                        releasedByRequest.set(true);
+                        return webClient.post()
+                                .uri(uriBuilder -> uriBuilder
+                                        .path("/all")
+                                        .queryParam("nb-results", nbresults)
+                                        .queryParam("lang", lang)
+                                        .queryParam("api-key", API_KEY)
+                                        .build())
+                                .contentType(MediaType.MULTIPART_FORM_DATA)
+                                .body(BodyInserters.fromMultipartData(builder.build()))
+                                .retrieve()
+                                .bodyToMono(PhotoAnalysisResponse.class)
+                                .doFinally(signal -> release.run());
+                    })
                     .block();
 
             if (response != null) {
+                identificationCache.put(key, parameters, perceptualHashes, response);
                 return response;
             }
+        } catch (CallNotPermittedException e) {
+            throw plantNetUnavailable(e);
+        } catch (PlantNetUnavailableException e) {
+            throw e;
         } catch (RuntimeException e) {
             throw new RuntimeException("Błąd podczas wysyłania pliku do API", e);
+        } finally {
+            if (!releasedByRequest.get()) {
+                release.run();
+            }
         }
         return null;
     }
+
+    // While the PlantNet circuit is open there is no point in spooling, hashing and preprocessing images.
+    private void checkPlantNetAvailable() {
+        try {
+            upstreamCircuitBreakers.checkPermitted("plantnet", identifyPath);
+        } catch (CallNotPermittedException e) {
+            throw plantNetUnavailable(e);
+        }
+    }
+
+    private PlantNetUnavailableException plantNetUnavailable(CallNotPermittedException e) {
+        return new PlantNetUnavailableException("Serwis rozpoznawania roślin jest chwilowo niedostępny. Spróbuj ponownie później.", e);
+    }
 }
@@ -0,0 +1,214 @@
+package project.plantify.AI.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import project.plantify.AI.exceptions.InvalidBatchRequestException;
+import project.plantify.AI.exceptions.PlantNetUnavailableException;
+import project.plantify.AI.mappers.PhotoAnalysisMapper;
+import project.plantify.AI.payloads.request.ObservationRequest;
+import project.plantify.AI.payloads.response.BatchIdentificationResponse;
+import project.plantify.AI.payloads.response.PhotoAnalysisResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Identifies a whole survey in one request. Every observation is spooled up front, then at most
+// plant.net.batch.concurrency of them per request run through AIService at once, each cut off
+// plant.net.batch.item-timeout after a worker picked it up. Results are written as NDJSON lines
+// in completion order.
+@Service
+public class BatchIdentificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchIdentificationService.class);
+
+    private static final int MAX_IMAGES_PER_OBSERVATION = 5;
+
+    private final AIService aiService;
+    private final UploadSpool uploadSpool;
+    private final PhotoAnalysisMapper photoAnalysisMapper;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService workers;
+    private final int concurrency;
+    private final Duration itemTimeout;
+    private final int maxObservations;
+
+    // The spool files belong to whoever claims the observation first: the worker that identifies
+    // it, or the cancellation (timeout, client gone) that gets there before the worker starts.
+    // A worker hands them to AIService, which releases them once its PlantNet call is over.
+    private record Observation(String id, String organs, List<UploadSpool.SpooledUpload> uploads, AtomicBoolean claimed) {
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        private void close() {
+            uploads.forEach(UploadSpool.SpooledUpload::close);
+        }
+    }
+
+    @Autowired
+    public BatchIdentificationService(AIService aiService, UploadSpool uploadSpool, PhotoAnalysisMapper photoAnalysisMapper,
+                                      ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                      @Value("${plant.net.batch.workers:8}") int workers,
+                                      @Value("${plant.net.batch.queue-capacity:200}") int queueCapacity,
+                                      @Value("${plant.net.batch.concurrency:4}") int concurrency,
+                                      @Value("${plant.net.batch.item-timeout:60s}") Duration itemTimeout,
+                                      @Value("${plant.net.batch.max-observations:50}") int maxObservations) {
+        this.aiService = aiService;
+        this.uploadSpool = uploadSpool;
+        this.photoAnalysisMapper = photoAnalysisMapper;
+        this.objectMapper = objectMapper;
+        this.concurrency = concurrency;
+        this.itemTimeout = itemTimeout;
+        this.maxObservations = maxObservations;
+        this.pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("identification-batch-", 0).daemon().factory());
+        this.workers = ExecutorServiceMetrics.monitor(meterRegistry, pool, "ai.identification-batch");
+    }
+
+    public ResponseBodyEmitter identify(List<ObservationRequest> requests, Map<String, List<MultipartFile>> images,
+                                        String lang, String nbresults) {
+        List<Observation> observations = spool(requests, images);
+        // Long enough for every round of the batch to hit its item timeout, plus a margin.
+        long rounds = (observations.size() + concurrency - 1) / concurrency;
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(itemTimeout.multipliedBy(rounds).plusSeconds(30).toMillis());
+
+        Disposable subscription = Flux.fromIterable(observations)
+                .flatMap(observation -> identify(observation, lang, nbresults), concurrency)
+                .doFinally(signal -> observations.forEach(observation -> {
+                    if (observation.claim()) {
+                        observation.close();
+                    }
+                }))
+                .subscribe(result -> send(emitter, result), emitter::completeWithError, emitter::complete);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    // The pool is shared by all batches, so the item timeout only starts once a worker has the item;
+    // time spent queued behind other batches is bounded by the emitter timeout instead.
+    private Mono<BatchIdentificationResponse> identify(Observation observation, String lang, String nbresults) {
+        Sinks.Empty<Void> started = Sinks.empty();
+        return analyze(observation, lang, nbresults, started)
+                .timeout(started.asMono().then(Mono.delay(itemTimeout)))
+                .map(response -> new BatchIdentificationResponse(observation.id(), "DONE", null,
+                        photoAnalysisMapper.toFrontend(response)))
+                .onErrorResume(TimeoutException.class, e -> Mono.just(new BatchIdentificationResponse(observation.id(),
+                        "TIMEOUT", "Przekroczono czas rozpoznawania rośliny.", null)))
+                .onErrorResume(PlantNetUnavailableException.class, e -> Mono.just(new BatchIdentificationResponse(
+                        observation.id(), "FAILED", e.getMessage(), null)))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(new BatchIdentificationResponse(
+                        observation.id(), "FAILED", "Zbyt wiele zgłoszeń rozpoznawania roślin. Spróbuj ponownie za chwilę.", null)))
+                .onErrorResume(e -> {
+                    log.error("Batch identification of observation {} failed", observation.id(), e);
+                    return Mono.just(new BatchIdentificationResponse(observation.id(), "FAILED",
+                            "Nie udało się rozpoznać rośliny.", null));
+                });
+    }
+
+    // Runs the blocking identification as a pool task; cancelling the Mono (timeout included)
+    // interrupts the worker so it frees its slot instead of finishing a result nobody reads.
+    private Mono<PhotoAnalysisResponse> analyze(Observation observation, String lang, String nbresults, Sinks.Empty<Void> started) {
+        return Mono.create(sink -> {
+            Future<?> task;
+            try {
+                task = workers.submit(() -> {
+                    if (!observation.claim()) {
+                        return;
+                    }
+                    started.tryEmitEmpty();
+                    try {
+                        sink.success(aiService.analyzeSpooled(observation.uploads(), observation.organs(), lang, nbresults,
+                                observation::close));
+                    } catch (RuntimeException e) {
+                        sink.error(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                sink.error(e);
+                return;
+            }
+            sink.onCancel(() -> {
+                task.cancel(true);
+                if (observation.claim()) {
+                    observation.close();
+                }
+            });
+        });
+    }
+
+    private void send(ResponseBodyEmitter emitter, BatchIdentificationResponse result) {
+        try {
+            emitter.send(objectMapper.writeValueAsString(result) + "\n", MediaType.APPLICATION_NDJSON);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the remaining items are cancelled through onError.
+            log.debug("Could not send batch result for observation {}: {}", result.getObservationId(), e.getMessage());
+        }
+    }
+
+    private List<Observation> spool(List<ObservationRequest> requests, Map<String, List<MultipartFile>> images) {
+        if (requests == null || requests.isEmpty() || requests.size() > maxObservations) {
+            throw new InvalidBatchRequestException("Partia musi zawierać od 1 do " + maxObservations + " obserwacji.");
+        }
+        Set<String> ids = new HashSet<>();
+        for (ObservationRequest request : requests) {
+            if (request.getId() == null || !ids.add(request.getId())) {
+                throw new InvalidBatchRequestException("Każda obserwacja musi mieć unikalny identyfikator.");
+            }
+            if (request.getOrgans() == null || request.getOrgans().isBlank()) {
+                throw new InvalidBatchRequestException("Obserwacja " + request.getId() + " musi określać organy rośliny.");
+            }
+            List<MultipartFile> files = images.getOrDefault("images." + request.getId(), List.of());
+            if (files.isEmpty() || files.size() > MAX_IMAGES_PER_OBSERVATION) {
+                throw new InvalidBatchRequestException("Obserwacja " + request.getId() + " musi zawierać od 1 do "
+                        + MAX_IMAGES_PER_OBSERVATION + " zdjęć.");
+            }
+        }
+        List<Observation> observations = new ArrayList<>();
+        try {
+            for (ObservationRequest request : requests) {
+                List<UploadSpool.SpooledUpload> uploads = uploadSpool.spool(images.get("images." + request.getId()));
+                observations.add(new Observation(request.getId(), request.getOrgans(), uploads, new AtomicBoolean()));
+            }
+            return observations;
+        } catch (RuntimeException e) {
+            observations.forEach(Observation::close);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,140 @@
+package project.plantify.AI.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import project.plantify.AI.payloads.response.PhotoAnalysisResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+// Previous PlantNet results, keyed by the request parameters plus the SHA-256 of every uploaded file.
+// When the bytes differ (re-compressed, resized or screenshotted copies of the same photo), a
+// result is still reused if every image's perceptual hash is within a few bits of a cached one.
+@Component
+public class IdentificationCache {
+
+    private final Cache<String, Entry> results;
+    private final int maxDistance;
+    private final Counter exactHits;
+    private final Counter similarHits;
+    private final Counter misses;
+
+    private record Entry(String parameters, long[] perceptualHashes, PhotoAnalysisResponse response) {
+    }
+
+    @Autowired
+    public IdentificationCache(MeterRegistry meterRegistry,
+                               @Value("${plant.net.cache.capacity:10000}") long capacity,
+                               @Value("${plant.net.cache.ttl:7d}") Duration ttl,
+                               @Value("${plant.net.cache.similarity-distance:6}") int maxDistance) {
+        this.maxDistance = maxDistance;
+        this.results = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<String, Entry>build(), "ai.identification");
+        this.exactHits = counter(meterRegistry, "exact");
+        this.similarHits = counter(meterRegistry, "similar");
+        this.misses = counter(meterRegistry, "miss");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("plantify.ai.identification.cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public static String parameters(String organs, String lang, String nbresults) {
+        return organs + "|" + lang + "|" + nbresults;
+    }
+
+    public static String key(String parameters, List<String> contentHashes) {
+        return parameters + "|" + String.join(",", contentHashes);
+    }
+
+    public Optional<PhotoAnalysisResponse> findExact(String key) {
+        Entry entry = results.getIfPresent(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        exactHits.increment();
+        return Optional.of(entry.response());
+    }
+
+    // Null hashes (images that could not be decoded) never match.
+    public Optional<PhotoAnalysisResponse> findSimilar(String parameters, Long[] perceptualHashes) {
+        for (Long hash : perceptualHashes) {
+            if (hash == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+        }
+        Entry best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Entry entry : results.asMap().values()) {
+            if (!entry.parameters().equals(parameters) || entry.perceptualHashes().length != perceptualHashes.length) {
+                continue;
+            }
+            int distance = 0;
+            for (int i = 0; i < perceptualHashes.length && distance <= bestDistance; i++) {
+                int bits = Long.bitCount(entry.perceptualHashes()[i] ^ perceptualHashes[i]);
+                distance = bits > maxDistance ? Integer.MAX_VALUE : Math.max(distance, bits);
+            }
+            if (distance < bestDistance) {
+                best = entry;
+                bestDistance = distance;
+            }
+        }
+        if (best == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        similarHits.increment();
+        return Optional.of(best.response());
+    }
+
+    // Results for undecodable images are stored without hashes, so only exact uploads can reuse them.
+    public void put(String key, String parameters, Long[] perceptualHashes, PhotoAnalysisResponse response) {
+        for (Long hash : perceptualHashes) {
+            if (hash == null) {
+                results.put(key, new Entry(parameters, new long[0], response));
+                return;
+            }
+        }
+        long[] hashes = new long[perceptualHashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = perceptualHashes[i];
+        }
+        results.put(key, new Entry(parameters, hashes, response));
+    }
+
+    public static String contentHash(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package project.plantify.AI.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import project.plantify.AI.exceptions.IdentificationJobNotFoundException;
+import project.plantify.AI.exceptions.IdentificationQueueFullException;
+import project.plantify.AI.exceptions.PlantNetUnavailableException;
+import project.plantify.AI.mappers.PhotoAnalysisMapper;
+import project.plantify.AI.payloads.response.IdentificationJobResponse;
+import project.plantify.AI.payloads.response.PhotoAnalysisResponseToFrontend;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Identification requests that return a job id at once. Uploads are spooled before the request
+// ends, the PlantNet call runs on a bounded pool, and a full queue is reported to the client
+// instead of piling up. Jobs and their results expire after plant.net.jobs.ttl.
+@Service
+public class IdentificationJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentificationJobService.class);
+
+    private final AIService aiService;
+    private final UploadSpool uploadSpool;
+    private final PhotoAnalysisMapper photoAnalysisMapper;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService workers;
+    private final Cache<String, Job> jobs;
+    private final Duration eventsTimeout;
+
+    // DONE and FAILED are read off the completed future itself, so a response never reports a
+    // finished status without its result or error.
+    private static final class Job {
+        private final String id;
+        private final CompletableFuture<PhotoAnalysisResponseToFrontend> result = new CompletableFuture<>();
+        private volatile boolean running;
+
+        private Job(String id) {
+            this.id = id;
+        }
+
+        private IdentificationJobResponse toResponse() {
+            if (!result.isDone()) {
+                return new IdentificationJobResponse(id, running ? "RUNNING" : "PENDING", null, null);
+            }
+            if (result.isCompletedExceptionally()) {
+                return new IdentificationJobResponse(id, "FAILED", result.exceptionNow().getMessage(), null);
+            }
+            return new IdentificationJobResponse(id, "DONE", null, result.resultNow());
+        }
+    }
+
+    @Autowired
+    public IdentificationJobService(AIService aiService, UploadSpool uploadSpool, PhotoAnalysisMapper photoAnalysisMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${plant.net.jobs.workers:4}") int workers,
+                                    @Value("${plant.net.jobs.queue-capacity:100}") int queueCapacity,
+                                    @Value("${plant.net.jobs.capacity:10000}") long capacity,
+                                    @Value("${plant.net.jobs.ttl:15m}") Duration ttl,
+                                    @Value("${plant.net.jobs.events-timeout:2m}") Duration eventsTimeout) {
+        this.aiService = aiService;
+        this.uploadSpool = uploadSpool;
+        this.photoAnalysisMapper = photoAnalysisMapper;
+        this.eventsTimeout = eventsTimeout;
+        this.pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("identification-job-", 0).daemon().factory());
+        this.workers = ExecutorServiceMetrics.monitor(meterRegistry, pool, "ai.identification-jobs");
+        this.jobs = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<String, Job>build(), "ai.identification-jobs");
+    }
+
+    public IdentificationJobResponse submit(List<MultipartFile> images, String organs, String lang, String nbresults) {
+        List<UploadSpool.SpooledUpload> uploads = uploadSpool.spool(images);
+        Job job = new Job(UUID.randomUUID().toString());
+        try {
+            workers.execute(() -> run(job, uploads, organs, lang, nbresults));
+        } catch (RejectedExecutionException e) {
+            uploads.forEach(UploadSpool.SpooledUpload::close);
+            throw new IdentificationQueueFullException("Zbyt wiele zgłoszeń rozpoznawania roślin. Spróbuj ponownie za chwilę.", e);
+        }
+        jobs.put(job.id, job);
+        return job.toResponse();
+    }
+
+    private void run(Job job, List<UploadSpool.SpooledUpload> uploads, String organs, String lang, String nbresults) {
+        job.running = true;
+        try {
+            job.result.complete(photoAnalysisMapper.toFrontend(aiService.analyzeSpooled(uploads, organs, lang, nbresults,
+                    () -> uploads.forEach(UploadSpool.SpooledUpload::close))));
+        } catch (PlantNetUnavailableException e) {
+            job.result.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            log.error("Identification job {} failed", job.id, e);
+            job.result.completeExceptionally(e);
+        }
+    }
+
+    public IdentificationJobResponse get(String id) {
+        return find(id).toResponse();
+    }
+
+    // Sends the current status straight away and the final state once the job completes.
+    public SseEmitter events(String id) {
+        Job job = find(id);
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job.toResponse()));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        job.result.whenComplete((result, error) -> {
+            try {
+                emitter.send(SseEmitter.event().name("result").data(job.toResponse()));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private Job find(String id) {
+        Job job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new IdentificationJobNotFoundException("Nie znaleziono zadania rozpoznawania " + id + ".");
+        }
+        return job;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
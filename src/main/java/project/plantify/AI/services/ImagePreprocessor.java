@@ -0,0 +1,301 @@
+package project.plantify.AI.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Phone photos are decoded once (subsampled while decoding when they are far larger than needed),
+// turned upright according to their EXIF orientation, scaled to max-edge and re-encoded as a
+// metadata-free JPEG before they go to PlantNet. Images that cannot be decoded, or that arrive
+// while the worker queue is full, are forwarded unchanged, streamed from their spool file.
+// Decoding reads the spool file directly, and subsampling bounds the decoded raster by max-edge,
+// so heap use per image does not grow with the size of the upload.
+@Component
+public class ImagePreprocessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagePreprocessor.class);
+
+    private static final int EXIF_ORIENTATION = 0x0112;
+
+    private final int maxEdge;
+    private final float quality;
+    private final ExecutorService workers;
+    private final ThreadPoolExecutor pool;
+    private final Timer timer;
+    private final DistributionSummary originalBytes;
+    private final DistributionSummary preparedBytes;
+
+    @Autowired
+    public ImagePreprocessor(MeterRegistry meterRegistry,
+                             @Value("${plant.net.image.max-edge:1280}") int maxEdge,
+                             @Value("${plant.net.image.quality:0.85}") float quality,
+                             @Value("${plant.net.image.workers:0}") int workers,
+                             @Value("${plant.net.image.queue-capacity:64}") int queueCapacity) {
+        this.maxEdge = maxEdge;
+        this.quality = quality;
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-preprocess-", 0).daemon().factory());
+        this.workers = ExecutorServiceMetrics.monitor(meterRegistry, pool, "ai.image-preprocess");
+        this.timer = Timer.builder("plantify.ai.image.preprocess").register(meterRegistry);
+        this.originalBytes = DistributionSummary.builder("plantify.ai.image.bytes")
+                .baseUnit("bytes").tag("stage", "original").register(meterRegistry);
+        this.preparedBytes = DistributionSummary.builder("plantify.ai.image.bytes")
+                .baseUnit("bytes").tag("stage", "prepared").register(meterRegistry);
+    }
+
+    // perceptualHash is null when the image could not be decoded.
+    public record PreparedImage(Resource content, String filename, Long perceptualHash) {
+    }
+
+    public List<PreparedImage> prepare(List<UploadSpool.SpooledUpload> images) {
+        List<Future<PreparedImage>> futures = new ArrayList<>();
+        for (UploadSpool.SpooledUpload image : images) {
+            try {
+                futures.add(workers.submit(() -> timer.recordCallable(() -> prepare(image))));
+            } catch (RejectedExecutionException e) {
+                log.warn("Image preprocessing queue is full, forwarding original image {}", image.filename());
+                futures.add(null);
+            }
+        }
+
+        List<PreparedImage> prepared = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            try {
+                prepared.add(futures.get(i) != null ? futures.get(i).get() : original(images.get(i)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> { if (future != null) future.cancel(true); });
+                throw new IllegalStateException("Interrupted while preparing images", e);
+            } catch (ExecutionException e) {
+                log.warn("Could not preprocess image {}, forwarding the original: {}", images.get(i).filename(), e.getCause().toString());
+                prepared.add(original(images.get(i)));
+            }
+        }
+        return prepared;
+    }
+
+    PreparedImage prepare(UploadSpool.SpooledUpload image) throws IOException {
+        originalBytes.record(Files.size(image.file()));
+        BufferedImage decoded;
+        int orientation;
+        try (ImageInputStream input = new FileImageInputStream(image.file().toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return original(image);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int edge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, edge / maxEdge);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                orientation = orientation(reader);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        BufferedImage upright = transform(decoded, orientation);
+        byte[] encoded = encode(upright);
+        preparedBytes.record(encoded.length);
+        return new PreparedImage(new ByteArrayResource(encoded), jpegName(image.filename()), differenceHash(upright));
+    }
+
+    private static PreparedImage original(UploadSpool.SpooledUpload image) {
+        return new PreparedImage(new FileSystemResource(image.file()), image.filename(), null);
+    }
+
+    // dHash: the image is averaged down to a 9x8 luminance grid and each bit records whether a cell
+    // is brighter than its right neighbour. Re-encoding, resizing and small edits flip only a few bits.
+    static long differenceHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        double[] sums = new double[9 * 8];
+        int[] counts = new int[9 * 8];
+        for (int y = 0; y < height; y++) {
+            int row = y * 8 / height * 9;
+            for (int x = 0; x < width; x++) {
+                int rgb = pixels[y * width + x];
+                int cell = row + x * 9 / width;
+                sums[cell] += 0.299 * (rgb >> 16 & 0xFF) + 0.587 * (rgb >> 8 & 0xFF) + 0.114 * (rgb & 0xFF);
+                counts[cell]++;
+            }
+        }
+        long hash = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                int cell = row * 9 + column;
+                double left = sums[cell] / Math.max(1, counts[cell]);
+                double right = sums[cell + 1] / Math.max(1, counts[cell + 1]);
+                hash = hash << 1 | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    // Scales to max-edge and applies the orientation in one bilinear pass onto an opaque RGB canvas.
+    private BufferedImage transform(BufferedImage source, int orientation) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int scaledWidth = Math.max(1, (int) Math.round(width * scale));
+        int scaledHeight = Math.max(1, (int) Math.round(height * scale));
+        boolean swap = orientation >= 5 && orientation <= 8;
+
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, scaledWidth, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, scaledWidth, scaledHeight);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, scaledHeight);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, scaledHeight, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, scaledHeight, scaledWidth);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, scaledWidth);
+            default -> new AffineTransform();
+        };
+        transform.scale((double) scaledWidth / width, (double) scaledHeight / height);
+
+        BufferedImage target = new BufferedImage(swap ? scaledHeight : scaledWidth, swap ? scaledWidth : scaledHeight,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, target.getWidth(), target.getHeight());
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // No metadata is passed to the writer, so EXIF (including GPS position) is dropped.
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Reads the orientation tag from IFD0 of the JPEG's Exif APP1 segment; anything else counts as upright.
+    private static int orientation(ImageReader reader) {
+        try {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null || !"javax_imageio_jpeg_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+                return 1;
+            }
+            Node markers = ((IIOMetadataNode) metadata.getAsTree("javax_imageio_jpeg_image_1.0"))
+                    .getElementsByTagName("markerSequence").item(0);
+            for (Node marker = markers == null ? null : markers.getFirstChild(); marker != null; marker = marker.getNextSibling()) {
+                if (marker instanceof IIOMetadataNode node && "unknown".equals(node.getNodeName())
+                        && "225".equals(node.getAttribute("MarkerTag")) && node.getUserObject() instanceof byte[] app1) {
+                    int orientation = exifOrientation(app1);
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read Exif orientation: {}", e.toString());
+        }
+        return 1;
+    }
+
+    static int exifOrientation(byte[] app1) {
+        byte[] header = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+        if (app1.length < header.length + 8) {
+            return 0;
+        }
+        for (int i = 0; i < header.length; i++) {
+            if (app1[i] != header[i]) {
+                return 0;
+            }
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(app1, header.length, app1.length - header.length).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+        for (int i = 0; i < entries && ifd + 2 + (i + 1) * 12 <= tiff.limit(); i++) {
+            int entry = ifd + 2 + i * 12;
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == EXIF_ORIENTATION) {
+                int value = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return value >= 1 && value <= 8 ? value : 0;
+            }
+        }
+        return 0;
+    }
+
+    private static String jpegName(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return "image.jpg";
+        }
+        int dot = filename.lastIndexOf('.');
+        return (dot > 0 ? filename.substring(0, dot) : filename) + ".jpg";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
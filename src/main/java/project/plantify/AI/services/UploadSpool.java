@@ -0,0 +1,55 @@
+package project.plantify.AI.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Moves each uploaded part into a spool file of its own. Parts above the multipart file-size
+// threshold are already on disk; transferTo(File) hands them to Part.write, which renames the
+// container's temp file (a copy only happens across file systems). transferTo(Path) would always
+// stream a full copy. From here on images are only read from disk, never held in heap as a whole.
+@Component
+public class UploadSpool {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSpool.class);
+
+    @Value("${plant.net.upload.spool-dir:${java.io.tmpdir}}")
+    private Path directory;
+
+    public record SpooledUpload(Path file, String filename) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled upload {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    public List<SpooledUpload> spool(List<MultipartFile> images) {
+        List<SpooledUpload> spooled = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            for (MultipartFile image : images) {
+                Path file = Files.createTempFile(directory, "plantnet-", ".upload");
+                spooled.add(new SpooledUpload(file, image.getOriginalFilename()));
+                image.transferTo(file.toFile());
+            }
+            return spooled;
+        } catch (IOException e) {
+            spooled.forEach(SpooledUpload::close);
+            throw new UncheckedIOException("Could not spool uploaded image", e);
+        }
+    }
+}
@@ -1,20 +1,88 @@
 package project.plantify;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import project.plantify.upstream.UpstreamBudget;
+import project.plantify.upstream.UpstreamBudgetExceededException;
+import project.plantify.upstream.UpstreamCircuitBreakers;
+import project.plantify.upstream.UpstreamHttpClients;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 public class WebClientConfig {
 //    @Value("${plant.api.url}")
 //    private String plantUrl;
 
+    @Bean
+    public UpstreamBudget perenualBudget(@Value("${plant.upstream.perenual.requests-per-minute:60}") long requestsPerMinute,
+                                         @Value("${plant.upstream.perenual.requests-per-day:10000}") long requestsPerDay,
+                                         @Value("${plant.upstream.perenual.background-reserve:0.2}") double backgroundReserve,
+                                         @Value("${plant.upstream.perenual.max-wait:2s}") Duration maxWait,
+                                         MeterRegistry meterRegistry) {
+        return new UpstreamBudget("perenual", requestsPerMinute, requestsPerDay, backgroundReserve, maxWait, meterRegistry);
+    }
+
+    // PlantNet's multipart identify routinely takes several seconds, so it gets a longer slow-call
+    // duration than Perenual's lookups; everything else can be tuned per upstream as well.
+    @Bean
+    public UpstreamCircuitBreakers upstreamCircuitBreakers(Environment environment, MeterRegistry meterRegistry) {
+        return new UpstreamCircuitBreakers(Map.of(
+                "perenual", circuitBreakerConfig(environment, "perenual", Duration.ofSeconds(5)),
+                "plantnet", circuitBreakerConfig(environment, "plantnet", Duration.ofSeconds(20))), meterRegistry);
+    }
+
+    private static CircuitBreakerConfig circuitBreakerConfig(Environment environment, String upstream, Duration slowCallDuration) {
+        String prefix = "plant.upstream." + upstream + ".circuit-breaker.";
+        return CircuitBreakerConfig.custom()
+                .failureRateThreshold(environment.getProperty(prefix + "failure-rate-threshold", Float.class, 50f))
+                .slowCallRateThreshold(environment.getProperty(prefix + "slow-call-rate-threshold", Float.class, 80f))
+                .slowCallDurationThreshold(environment.getProperty(prefix + "slow-call-duration", Duration.class, slowCallDuration))
+                .slidingWindowSize(environment.getProperty(prefix + "sliding-window-size", Integer.class, 20))
+                .minimumNumberOfCalls(environment.getProperty(prefix + "minimum-number-of-calls", Integer.class, 10))
+                .waitDurationInOpenState(environment.getProperty(prefix + "wait-in-open-state", Duration.class, Duration.ofSeconds(30)))
+                .permittedNumberOfCallsInHalfOpenState(environment.getProperty(prefix + "permitted-calls-in-half-open-state", Integer.class, 3))
+                .ignoreExceptions(UpstreamBudgetExceededException.class)
+                .build();
+    }
+
+    @Bean
+    public HttpClient perenualHttpClient(UpstreamHttpClients upstreamHttpClients) {
+        return upstreamHttpClients.create("perenual");
+    }
+
+    @Bean
+    public HttpClient plantNetHttpClient(UpstreamHttpClients upstreamHttpClients) {
+        return upstreamHttpClients.create("plantnet");
+    }
+
     @Bean("Guide")
-    public WebClient GuideWebClient(@Value("${plant.api.url}") String plantUrl) {
-        return WebClient.builder().baseUrl(plantUrl).build();
+    public WebClient GuideWebClient(@Value("${plant.api.url}") String plantUrl, @Qualifier("perenualHttpClient") HttpClient perenualHttpClient,
+                                    UpstreamBudget perenualBudget, UpstreamCircuitBreakers upstreamCircuitBreakers) {
+        return WebClient.builder()
+                .baseUrl(plantUrl)
+                .filter(upstreamCircuitBreakers.filter("perenual"))
+                .filter(perenualBudget.filter())
+                .clientConnector(new ReactorClientHttpConnector(perenualHttpClient))
+                .build();
     }
 
     @Bean("AI")
-    public WebClient aiWebClient() {return WebClient.builder().baseUrl("https://my-api.plantnet.org/v2/identify").build();}
+    public WebClient aiWebClient(@Value("${plant.net.api.url}") String plantNetUrl, @Qualifier("plantNetHttpClient") HttpClient plantNetHttpClient,
+                                 UpstreamCircuitBreakers upstreamCircuitBreakers) {
+        return WebClient.builder()
+                .baseUrl(plantNetUrl)
+                .filter(upstreamCircuitBreakers.filter("plantnet"))
+                .clientConnector(new ReactorClientHttpConnector(plantNetHttpClient))
+                .build();
+    }
 }
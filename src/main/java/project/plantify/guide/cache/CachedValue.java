@@ -0,0 +1,16 @@
+package project.plantify.guide.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// etag is a strong, quoted entity tag over the serialized value, computed once when the entry is loaded.
+public record CachedValue<V>(V value, Instant fetchedAt, Duration softTtl, String etag) {
+
+    public long ageSeconds() {
+        return Math.max(0, Duration.between(fetchedAt, Instant.now()).toSeconds());
+    }
+
+    public boolean isStale() {
+        return fetchedAt.plus(softTtl).isBefore(Instant.now());
+    }
+}
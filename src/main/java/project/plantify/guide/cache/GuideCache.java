@@ -0,0 +1,89 @@
+package project.plantify.guide.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+@Component
+public class GuideCache {
+
+    public static final String ALL_SPECIES_KEY = "*";
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final List<SwrCache<?>> caches = new CopyOnWriteArrayList<>();
+
+    @Getter
+    private final Cache<String, StoredGuide> careGuides;
+
+    public GuideCache(MeterRegistry meterRegistry, Environment environment, ObjectMapper objectMapper,
+                      @Value("${plant.guide.cache.care-guides.capacity:20000}") long careGuidesCapacity,
+                      @Value("${plant.guide.cache.care-guides.ttl:7d}") Duration careGuidesTtl) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.careGuides = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(careGuidesCapacity)
+                .expireAfterWrite(careGuidesTtl)
+                .recordStats()
+                .<String, StoredGuide>build(), "guide.care-guides");
+    }
+
+    public static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Capacity and TTLs come from plant.guide.cache.<name>.capacity / soft-ttl / ttl.
+    // Caffeine admits new entries by access frequency (W-TinyLFU), so one-off queries
+    // do not evict the popular ones once the cache is full.
+    public <V> SwrCache<V> create(String name, Function<String, Mono<V>> loader) {
+        String prefix = "plant.guide.cache." + name + ".";
+        Duration hardTtl = environment.getProperty(prefix + "ttl", Duration.class, Duration.ofHours(1));
+        Duration softTtl = environment.getProperty(prefix + "soft-ttl", Duration.class, hardTtl);
+        long capacity = environment.getProperty(prefix + "capacity", Long.class, 1000L);
+
+        SwrCache<V> cache = new SwrCache<>("guide." + name, meterRegistry, capacity,
+                softTtl.compareTo(hardTtl) < 0 ? softTtl : hardTtl, hardTtl, loader, this::etag);
+        caches.add(cache);
+        return cache;
+    }
+
+    // Strong ETag over the bytes the client receives: pass-through bodies are hashed as they are,
+    // everything else as Jackson serializes it for the response.
+    public String etag(Object value) {
+        try {
+            byte[] body = value instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(value);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void invalidateAll() {
+        caches.forEach(SwrCache::invalidateAll);
+        careGuides.invalidateAll();
+    }
+}
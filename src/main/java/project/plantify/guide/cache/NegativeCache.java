@@ -0,0 +1,67 @@
+package project.plantify.guide.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import project.plantify.guide.exceptions.NotFoundSpeciesException;
+import project.plantify.guide.sync.SpeciesCatalogUpdatedEvent;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Remembers queries Perenual had nothing for, so repeated misses (typos, bots) are answered with
+// 404 straight away instead of spending quota. Caffeine's frequency sketch decides admission once
+// the cache is full, so a flood of one-off misses cannot push out the ones that keep coming back.
+@Component
+public class NegativeCache {
+
+    private final Cache<String, String> misses;
+    private final MeterRegistry meterRegistry;
+
+    public NegativeCache(MeterRegistry meterRegistry,
+                         @Value("${plant.guide.cache.negative.capacity:10000}") long capacity,
+                         @Value("${plant.guide.cache.negative.ttl:10m}") Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.misses = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<String, String>build(), "guide.negative");
+    }
+
+    public <T> Mono<T> guard(String namespace, String key, Supplier<Mono<T>> lookup) {
+        String cacheKey = namespace + ":" + key;
+        return Mono.defer(() -> {
+            String message = misses.getIfPresent(cacheKey);
+            if (message != null) {
+                count(namespace, "hit");
+                return Mono.error(new NotFoundSpeciesException(message));
+            }
+            count(namespace, "miss");
+            return lookup.get().doOnError(NotFoundSpeciesException.class, e -> {
+                misses.put(cacheKey, e.getMessage());
+                count(namespace, "stored");
+            });
+        });
+    }
+
+    // A catalog sync can add exactly the species that used to be missing.
+    @EventListener(SpeciesCatalogUpdatedEvent.class)
+    public void invalidateAll() {
+        misses.invalidateAll();
+    }
+
+    private void count(String namespace, String result) {
+        Counter.builder("plantify.guide.negative-cache.requests")
+                .tag("namespace", namespace)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
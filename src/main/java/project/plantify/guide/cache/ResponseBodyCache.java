@@ -0,0 +1,42 @@
+package project.plantify.guide.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+// Final response bytes for the hottest Guide entries, keyed by ETag. The key changes whenever the
+// content does, so entries never need invalidating; W-TinyLFU keeps the most requested species.
+@Component
+public class ResponseBodyCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, EncodedResponse> bodies;
+
+    public ResponseBodyCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${plant.guide.cache.response-bytes.capacity:1000}") long capacity) {
+        this.objectMapper = objectMapper;
+        this.bodies = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .recordStats()
+                .<String, EncodedResponse>build(), "guide.response-bytes");
+    }
+
+    public EncodedResponse get(CachedValue<?> cached) {
+        return bodies.get(cached.etag(), etag -> EncodedResponse.of(serialize(cached.value())));
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return value instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
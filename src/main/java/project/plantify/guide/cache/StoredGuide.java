@@ -0,0 +1,13 @@
+package project.plantify.guide.cache;
+
+import project.plantify.guide.playloads.response.PlantsGuideFrontendResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record StoredGuide(PlantsGuideFrontendResponse guide, String name, Instant fetchedAt, String etag) {
+
+    public boolean isOlderThan(Duration age) {
+        return fetchedAt.plus(age).isBefore(Instant.now());
+    }
+}
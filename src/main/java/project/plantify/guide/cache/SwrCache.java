@@ -0,0 +1,61 @@
+package project.plantify.guide.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import project.plantify.upstream.UpstreamBudget;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+// Stale-while-revalidate cache: after the soft TTL an entry is still returned immediately while
+// Caffeine reloads it in the background. A failed reload keeps the old entry, so upstream outages
+// are bridged until the hard TTL evicts it. Concurrent misses for one key share a single load.
+public class SwrCache<V> {
+
+    private final AsyncLoadingCache<String, CachedValue<V>> cache;
+
+    public SwrCache(String name, MeterRegistry meterRegistry, long capacity, Duration softTtl, Duration hardTtl,
+                    Function<String, Mono<V>> loader, Function<? super V, String> etag) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .refreshAfterWrite(softTtl)
+                .expireAfterWrite(hardTtl)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<>() {
+                    @Override
+                    public CompletableFuture<CachedValue<V>> asyncLoad(String key, Executor executor) {
+                        return load(loader.apply(key), softTtl, etag);
+                    }
+
+                    // Refreshes are nobody's live request, so they only get the background share of the upstream budget.
+                    @Override
+                    public CompletableFuture<CachedValue<V>> asyncReload(String key, CachedValue<V> oldValue, Executor executor) {
+                        return load(loader.apply(key).contextWrite(UpstreamBudget.background()), softTtl, etag);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    private static <V> CompletableFuture<CachedValue<V>> load(Mono<V> value, Duration softTtl, Function<? super V, String> etag) {
+        return value.map(v -> new CachedValue<V>(v, Instant.now(), softTtl, etag.apply(v))).toFuture();
+    }
+
+    public Mono<CachedValue<V>> get(String key) {
+        return Mono.fromFuture(cache.get(key), true);
+    }
+
+    public void refresh(String key) {
+        cache.synchronous().refresh(key);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
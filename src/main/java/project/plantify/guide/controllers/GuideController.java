@@ -2,65 +2,154 @@ package project.plantify.guide.controllers;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import project.plantify.guide.cache.CachedValue;
+import project.plantify.guide.cache.EncodedResponse;
+import project.plantify.guide.cache.ResponseBodyCache;
 import project.plantify.guide.exceptions.ErrorMessage;
 import project.plantify.guide.exceptions.NotFoundSpeciesException;
 import project.plantify.guide.exceptions.PerenualApiException;
 import project.plantify.guide.playloads.response.*;
 import project.plantify.guide.services.GuideService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = {"X-Data-Age", "X-Data-Stale", "X-Catalog-Truncated"})
 @RequestMapping("/api/plantify/guide")
 public class GuideController {
 
+    private static final String DATA_AGE = "X-Data-Age";
+    private static final String DATA_STALE = "X-Data-Stale";
+    private static final String CATALOG_TRUNCATED = "X-Catalog-Truncated";
+
     @Autowired
     private GuideService guideService;
 
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    // Serves getSinglePlant and getPlantsFAQ as upstream JSON filtered straight into the response.
+    @Value("${plant.guide.passthrough.enabled:true}")
+    private boolean passThrough;
+
+    // Browser/app cache lifetimes: lists and searches change as the catalog syncs, details and guides rarely.
+    @Value("${plant.guide.http.list-max-age:5m}")
+    private Duration listMaxAge;
+
+    @Value("${plant.guide.http.details-max-age:1h}")
+    private Duration detailsMaxAge;
+
     @GetMapping("/getAll")
-    public ResponseEntity<List<PlantsResponseToFrontend>> getAllPlants() {
-        List<PlantsResponseToFrontend> response = this.guideService.getAllPlant();
-        System.out.println(response);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<List<PlantsResponseToFrontend>>> getAllPlants() {
+        return this.guideService.getAllPlant().map(entry -> cached(entry, listMaxAge));
+    }
+
+    @GetMapping("/getAllPaged")
+    public Mono<ResponseEntity<PlantsPageToFrontend>> getAllPlantsPaged(@RequestParam(value = "page", defaultValue = "1") int page) {
+        return this.guideService.getPlantsPage(Math.max(page, 1)).map(ResponseEntity::ok);
+    }
+
+    // X-Catalog-Truncated: true means the stream stopped before the last catalog page because the
+    // mirror is not complete yet and every page would have cost an upstream request.
+    @GetMapping(value = "/getAll/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<PlantsResponseToFrontend>>> streamAllPlants() {
+        return this.guideService.streamAllPlants().map(stream -> ResponseEntity.ok()
+                .header(CATALOG_TRUNCATED, String.valueOf(stream.truncated()))
+                .body(stream.plants()));
     }
 
     @GetMapping("/getPlantsBySpecies")
-    public ResponseEntity<List<PlantsResponseToFrontend>> getAllPlantsBySpecies(@RequestParam("species") String species) {
-        List<PlantsResponseToFrontend> response = this.guideService.getAllPlantsBySpecies(species.toLowerCase());
-        System.out.println(response);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<List<PlantsResponseToFrontend>>> getAllPlantsBySpecies(@RequestParam("species") String species,
+                                                                                      @RequestParam(value = "mode", defaultValue = "search") String mode,
+                                                                                      @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (mode.equalsIgnoreCase("autocomplete")) {
+            return this.guideService.autocompleteSpecies(species.toLowerCase(), limit).map(ResponseEntity::ok);
+        }
+        return this.guideService.getAllPlantsBySpecies(species.toLowerCase()).map(entry -> cached(entry, listMaxAge));
     }
 
     @GetMapping("/getSinglePlant")
-    public ResponseEntity<SinglePlantResponseToFrontend> getSinglePlant(@RequestParam("id") String id) {
-        SinglePlantResponseToFrontend response = this.guideService.getSinglePlant(id);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<byte[]>> getSinglePlant(@RequestParam("id") String id,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (passThrough) {
+            return this.guideService.getSinglePlantJson(id).map(entry -> encoded(entry, detailsMaxAge, acceptEncoding));
+        }
+        return this.guideService.getSinglePlant(id).map(entry -> encoded(entry, detailsMaxAge, acceptEncoding));
     }
 
     @GetMapping("/getPlantsGuide")
-    public ResponseEntity<List<PlantsGuideFrontendResponse>> getPlantsGuide(@RequestParam("name") String name) {
-        List<PlantsGuideFrontendResponse> response = this.guideService.getPlantsGuide(name.toLowerCase());
-        System.out.println(response);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<byte[]>> getPlantsGuide(@RequestParam("name") String name,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return this.guideService.getPlantsGuide(name.toLowerCase()).map(entry -> encoded(entry, detailsMaxAge, acceptEncoding));
     }
 
     @GetMapping("/getPlantsGuideById")
-    public ResponseEntity<PlantsGuideFrontendResponse> getPlantsGuideById(@RequestParam("speciesId") String id,
-                                                                          @RequestParam("speciesName") String name) {
-        PlantsGuideFrontendResponse response = this.guideService.getPlantsGuideById(id, name.toLowerCase());
-        System.out.println(response);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<PlantsGuideFrontendResponse>> getPlantsGuideById(@RequestParam("speciesId") String id,
+                                                                                @RequestParam("speciesName") String name) {
+        return this.guideService.getPlantsGuideById(id, name.toLowerCase()).map(entry -> cached(entry, detailsMaxAge));
     }
 
     @GetMapping("/getPlantsFAQ")
-    public ResponseEntity<List<PlantsFAQFrontendResponse>> getPlantsFAQ(@RequestParam("name") String name) {
-        List<PlantsFAQFrontendResponse> response = this.guideService.getPlantsFAQ(name.toLowerCase());
-        System.out.println(response);
-        return ResponseEntity.ok(response);
+    public Mono<? extends ResponseEntity<?>> getPlantsFAQ(@RequestParam("name") String name) {
+        if (passThrough) {
+            return this.guideService.getPlantsFAQJson(name.toLowerCase()).map(entry -> cachedJson(entry, detailsMaxAge));
+        }
+        return this.guideService.getPlantsFAQ(name.toLowerCase()).map(entry -> cached(entry, detailsMaxAge));
+    }
+
+    @GetMapping("/profile")
+    public Mono<ResponseEntity<PlantProfileFrontendResponse>> getPlantProfile(@RequestParam("speciesId") String id,
+                                                                              @RequestParam(value = "speciesName", required = false) String name) {
+        return this.guideService.getPlantProfile(id, name == null ? null : name.toLowerCase()).map(ResponseEntity::ok);
+    }
+
+    // X-Data-Age tells the client how old the cached upstream data is; past its soft TTL the entry
+    // is still served (flagged with X-Data-Stale) while a background refresh runs, or while Perenual
+    // is unavailable. The standard Age header is left out: it would count against max-age and make
+    // HTTP caches treat long-lived entries as stale on arrival.
+    // With an ETag on the entity, Spring answers a matching If-None-Match with 304 and skips the body.
+    private <T> ResponseEntity<T> cached(CachedValue<T> cached, Duration maxAge) {
+        return cachedResponse(cached, maxAge).body(cached.value());
+    }
+
+    private ResponseEntity<byte[]> cachedJson(CachedValue<byte[]> cached, Duration maxAge) {
+        return cachedResponse(cached, maxAge).contentType(MediaType.APPLICATION_JSON).body(cached.value());
+    }
+
+    // The hottest bodies are kept serialized and gzipped, so a hit is a single buffer write. The gzip
+    // variant is a different representation and gets its own strong ETag.
+    private ResponseEntity<byte[]> encoded(CachedValue<?> cached, Duration maxAge, String acceptEncoding) {
+        EncodedResponse body = responseBodyCache.get(cached);
+        ResponseEntity.BodyBuilder response = cachedResponse(cached, maxAge).contentType(MediaType.APPLICATION_JSON);
+        if (!EncodedResponse.acceptsGzip(acceptEncoding)) {
+            return response.body(body.identity());
+        }
+        return response
+                .eTag(cached.etag().substring(0, cached.etag().length() - 1) + "-gzip\"")
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(body.gzip());
+    }
+
+    private static ResponseEntity.BodyBuilder cachedResponse(CachedValue<?> cached, Duration maxAge) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(DATA_AGE, String.valueOf(cached.ageSeconds()));
+        if (cached.isStale()) {
+            response.header(DATA_STALE, "true");
+        }
+        return response;
     }
 
     @ExceptionHandler(PerenualApiException.class)
@@ -0,0 +1,63 @@
+package project.plantify.guide.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValueMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+import project.plantify.guide.playloads.response.*;
+import project.plantify.guide.search.SpeciesName;
+
+import java.util.List;
+
+// Generated at compile time; missing upstream lists become empty lists instead of NPEs.
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        nullValueIterableMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface GuideMapper {
+
+    String DEFAULT_IMAGE_URL = "https://images.unsplash.com/photo-1512428813834-c702c7702b78?crop=entropy&cs=tinysrgb&fit=max&fm=jpg&ixid=M3w0NTYyMDF8MHwxfHNlYXJjaHwxMXx8cGxhbnR8ZW58MHx8fHwxNzQ0MTMxOTgxfDA&ixlib=rb-4.0.3&q=80&w=1080";
+
+    @Mapping(target = "originalUrl", source = "defaultImage")
+    SinglePlantResponseToFrontend toFrontend(SinglePlantResponse plant);
+
+    SinglePlantResponseToFrontend.Dimensions toFrontend(SinglePlantResponse.Dimensions dimensions);
+
+    SinglePlantResponseToFrontend.WateringBenchmark toFrontend(SinglePlantResponse.WateringBenchmark benchmark);
+
+    SinglePlantResponseToFrontend.PlantPart toFrontend(SinglePlantResponse.PlantPart part);
+
+    SinglePlantResponseToFrontend.PruningCount toFrontend(SinglePlantResponse.PruningCount count);
+
+    List<PlantsResponseToFrontend> toPlants(List<PlantsResponse.Plant> plants);
+
+    @Mapping(target = "originalUrl", source = "defaultImage")
+    PlantsResponseToFrontend toFrontend(PlantsResponse.Plant plant);
+
+    List<PlantsResponseToFrontend> toSpecies(List<SpeciesName> species);
+
+    @Mapping(target = "originalUrl", source = "originalUrl", defaultValue = DEFAULT_IMAGE_URL)
+    PlantsResponseToFrontend toFrontend(SpeciesName species);
+
+    List<PlantsGuideFrontendResponse> toGuides(List<PlantsGuideResponse.PlantData> guides);
+
+    @Mapping(target = "sections", source = "section")
+    PlantsGuideFrontendResponse toFrontend(PlantsGuideResponse.PlantData guide);
+
+    PlantsGuideFrontendResponse.Section toFrontend(PlantsGuideResponse.PlantData.Section section);
+
+    List<PlantsFAQFrontendResponse> toFAQ(List<PlantsFAQResponse.Data> faq);
+
+    PlantsFAQFrontendResponse toFrontend(PlantsFAQResponse.Data faq);
+
+    default String imageUrl(SinglePlantResponse.Image image) {
+        if (image == null || image.getOriginalUrl() == null || image.getOriginalUrl().contains("upgrade_access.jpg")) {
+            return DEFAULT_IMAGE_URL;
+        }
+        return image.getOriginalUrl();
+    }
+
+    default String imageUrl(PlantsResponse.Plant.DefaultImage image) {
+        return image == null ? DEFAULT_IMAGE_URL : image.getOriginalUrl();
+    }
+}
@@ -0,0 +1,37 @@
+package project.plantify.guide.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "species")
+public class Species {
+
+    @Id
+    private Integer id;
+
+    private String commonName;
+
+    private String scientificName;
+
+    @Column(length = 1024)
+    private String originalUrl;
+
+    @Column(columnDefinition = "text")
+    private String details;
+
+    private Instant detailsFetchedAt;
+
+    private Integer detailsAttempts;
+
+    private Instant detailsFailedAt;
+
+    private Instant updatedAt;
+}
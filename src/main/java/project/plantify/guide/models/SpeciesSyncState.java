@@ -0,0 +1,37 @@
+package project.plantify.guide.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "species_sync_state")
+public class SpeciesSyncState {
+
+    public static final String SPECIES_LIST = "species-list";
+
+    @Id
+    private String name;
+
+    private int nextPage = 1;
+
+    private Integer lastPage;
+
+    private boolean completed;
+
+    private Instant lastCompletedAt;
+
+    private Instant lastRunAt;
+
+    public SpeciesSyncState(String name) {
+        this.name = name;
+    }
+}
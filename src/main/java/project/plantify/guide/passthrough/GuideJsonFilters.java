@@ -0,0 +1,81 @@
+package project.plantify.guide.passthrough;
+
+import project.plantify.guide.mappers.GuideMapper;
+
+// Whitelists turning Perenual payloads straight into the JSON of SinglePlantResponseToFrontend
+// and PlantsFAQFrontendResponse; they have to follow GuideMapper when those DTOs change.
+public final class GuideJsonFilters {
+
+    public static final JsonFilter SINGLE_PLANT = JsonFilter.builder()
+            .integer("id", "id")
+            .string("common_name", "commonName")
+            .string("family", "family")
+            .string("type", "type")
+            .objects("dimensions", "dimensions", JsonFilter.builder()
+                    .string("type", "type")
+                    .string("min_value", "minValue")
+                    .string("max_value", "maxValue")
+                    .string("unit", "unit")
+                    .build())
+            .string("cycle", "cycle")
+            .string("watering", "watering")
+            .object("watering_general_benchmark", "wateringGeneralBenchmark", JsonFilter.builder()
+                    .string("value", "value")
+                    .string("unit", "unit")
+                    .build())
+            .objects("plant_anatomy", "plantAnatomy", JsonFilter.builder()
+                    .string("part", "part")
+                    .strings("color", "color")
+                    .build())
+            .strings("sunlight", "sunlight")
+            .strings("pruning_month", "pruningMonth")
+            .objects("pruning_count", "pruningCount", JsonFilter.builder()
+                    .integer("amount", "amount")
+                    .string("interval", "interval")
+                    .build())
+            .string("seeds", "seeds")
+            .strings("propagation", "propagation")
+            .bool("flowers", "flowers")
+            .string("flowering_season", "floweringSeason")
+            .strings("soil", "soil")
+            .nullableBool("cones", "cones")
+            .nullableBool("fruits", "fruits")
+            .nullableBool("edible_fruit", "edibleFruit")
+            .string("fruiting_season", "fruitingSeason")
+            .string("harvest_season", "harvestSeason")
+            .string("harvest_method", "harvestMethod")
+            .nullableBool("leaf", "leaf")
+            .nullableBool("edible_leaf", "edibleLeaf")
+            .string("growth_rate", "growthRate")
+            .string("maintenance", "maintenance")
+            .nullableBool("medicinal", "medicinal")
+            .nullableBool("poisonous_to_humans", "poisonousToHumans")
+            .nullableBool("poisonous_to_pets", "poisonousToPets")
+            .nullableBool("drought_tolerant", "droughtTolerant")
+            .nullableBool("salt_tolerant", "saltTolerant")
+            .nullableBool("thorny", "thorny")
+            .nullableBool("invasive", "invasive")
+            .nullableBool("rare", "rare")
+            .nullableBool("tropical", "tropical")
+            .nullableBool("cuisine", "cuisine")
+            .nullableBool("indoor", "indoor")
+            .string("care_level", "careLevel")
+            .string("description", "description")
+            .hoist("default_image", JsonFilter.builder()
+                    .string("original_url", "originalUrl", GuideJsonFilters::imageUrl)
+                    .build())
+            .build();
+
+    public static final JsonFilter FAQ = JsonFilter.builder()
+            .integer("id", "id")
+            .string("question", "question")
+            .string("answer", "answer")
+            .build();
+
+    private GuideJsonFilters() {
+    }
+
+    private static String imageUrl(String url) {
+        return url == null || url.contains("upgrade_access.jpg") ? GuideMapper.DEFAULT_IMAGE_URL : url;
+    }
+}
@@ -0,0 +1,281 @@
+package project.plantify.guide.passthrough;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+// Copies a JSON object from a parser to a generator token by token, keeping only whitelisted
+// fields under their new names and skipping everything else without building values. Values are
+// coerced the way data binding into the frontend DTOs would, and whitelisted fields missing from
+// the input are written with the same defaults the mappers use, so the output matches the DTO path.
+public final class JsonFilter {
+
+    private static final UnaryOperator<String> IDENTITY = UnaryOperator.identity();
+
+    enum Kind { STRING, INT, BOOLEAN, NULLABLE_BOOLEAN, STRINGS, OBJECT, OBJECTS }
+
+    private record Field(String target, Kind kind, JsonFilter nested, UnaryOperator<String> transform, int index) {
+
+        Field withIndex(int index) {
+            return new Field(target, kind, nested, transform, index);
+        }
+    }
+
+    private final Map<String, Field> fields;
+    private final Map<String, Map<String, Field>> hoisted;
+    private final Field[] targets;
+
+    // Every target field, hoisted ones included, gets an index into the per-object "written" flags.
+    private JsonFilter(Map<String, Field> fields, Map<String, Map<String, Field>> hoisted) {
+        List<Field> targets = new ArrayList<>();
+        this.fields = index(fields, targets);
+        Map<String, Map<String, Field>> indexedHoisted = new HashMap<>();
+        hoisted.forEach((source, inner) -> indexedHoisted.put(source, index(inner, targets)));
+        this.hoisted = Map.copyOf(indexedHoisted);
+        this.targets = targets.toArray(new Field[0]);
+    }
+
+    private static Map<String, Field> index(Map<String, Field> fields, List<Field> targets) {
+        Map<String, Field> indexed = new HashMap<>();
+        fields.forEach((source, field) -> {
+            Field withIndex = field.withIndex(targets.size());
+            targets.add(withIndex);
+            indexed.put(source, withIndex);
+        });
+        return Map.copyOf(indexed);
+    }
+
+    private Map<String, Field> hoistable() {
+        return fields;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Expects the parser on START_OBJECT.
+    public void writeObject(JsonParser p, JsonGenerator g) throws IOException {
+        g.writeStartObject();
+        boolean[] written = new boolean[targets.length];
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            p.nextToken();
+            Field field = fields.get(name);
+            Map<String, Field> hoistedFields = hoisted.get(name);
+            if (field != null) {
+                g.writeFieldName(field.target());
+                writeValue(p, g, field);
+                written[field.index()] = true;
+            } else if (hoistedFields != null && p.currentToken() == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    Field inner = hoistedFields.get(p.currentName());
+                    p.nextToken();
+                    if (inner == null) {
+                        p.skipChildren();
+                        continue;
+                    }
+                    g.writeFieldName(inner.target());
+                    writeValue(p, g, inner);
+                    written[inner.index()] = true;
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        for (Field field : targets) {
+            if (!written[field.index()]) {
+                g.writeFieldName(field.target());
+                writeDefault(g, field);
+            }
+        }
+        g.writeEndObject();
+    }
+
+    // Writes the elements of the array under the given field of the object the parser is on
+    // as a top-level array and returns how many there were.
+    public int writeArrayField(JsonParser p, JsonGenerator g, String source) throws IOException {
+        int count = 0;
+        g.writeStartArray();
+        if (p.currentToken() == JsonToken.START_OBJECT) {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                boolean match = p.currentName().equals(source);
+                if (p.nextToken() == JsonToken.START_ARRAY && match) {
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        writeElement(p, g);
+                        count++;
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        g.writeEndArray();
+        return count;
+    }
+
+    private void writeElement(JsonParser p, JsonGenerator g) throws IOException {
+        if (p.currentToken() == JsonToken.START_OBJECT) {
+            writeObject(p, g);
+        } else {
+            p.skipChildren();
+            g.writeNull();
+        }
+    }
+
+    private static void writeValue(JsonParser p, JsonGenerator g, Field field) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            writeDefault(g, field);
+            return;
+        }
+        switch (field.kind()) {
+            case STRING -> {
+                if (token.isStructStart()) {
+                    p.skipChildren();
+                    writeDefault(g, field);
+                } else if (token == JsonToken.VALUE_STRING && field.transform() == IDENTITY) {
+                    g.copyCurrentEvent(p);
+                } else {
+                    writeString(g, field.transform().apply(p.getValueAsString()));
+                }
+            }
+            case INT -> {
+                p.skipChildren();
+                g.writeNumber(p.getValueAsInt());
+            }
+            case BOOLEAN, NULLABLE_BOOLEAN -> {
+                p.skipChildren();
+                g.writeBoolean(p.getValueAsBoolean());
+            }
+            case STRINGS -> {
+                g.writeStartArray();
+                if (token == JsonToken.START_ARRAY) {
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        writeScalarString(p, g);
+                    }
+                } else {
+                    writeScalarString(p, g);
+                }
+                g.writeEndArray();
+            }
+            case OBJECT -> {
+                if (token == JsonToken.START_OBJECT) {
+                    field.nested().writeObject(p, g);
+                } else {
+                    p.skipChildren();
+                    g.writeNull();
+                }
+            }
+            case OBJECTS -> {
+                g.writeStartArray();
+                if (token == JsonToken.START_ARRAY) {
+                    // Like PruningCountDeserializer, elements that are not objects are dropped.
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        if (p.currentToken() == JsonToken.START_OBJECT) {
+                            field.nested().writeObject(p, g);
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                } else if (token == JsonToken.START_OBJECT) {
+                    field.nested().writeObject(p, g);
+                } else {
+                    p.skipChildren();
+                }
+                g.writeEndArray();
+            }
+        }
+    }
+
+    private static void writeScalarString(JsonParser p, JsonGenerator g) throws IOException {
+        if (p.currentToken().isStructStart()) {
+            p.skipChildren();
+            g.writeNull();
+        } else if (p.currentToken() == JsonToken.VALUE_STRING) {
+            g.copyCurrentEvent(p);
+        } else {
+            writeString(g, p.getValueAsString());
+        }
+    }
+
+    private static void writeString(JsonGenerator g, String value) throws IOException {
+        if (value == null) {
+            g.writeNull();
+        } else {
+            g.writeString(value);
+        }
+    }
+
+    private static void writeDefault(JsonGenerator g, Field field) throws IOException {
+        switch (field.kind()) {
+            case STRING -> writeString(g, field.transform().apply(null));
+            case INT -> g.writeNumber(0);
+            case BOOLEAN -> g.writeBoolean(false);
+            case OBJECTS -> {
+                g.writeStartArray();
+                g.writeEndArray();
+            }
+            default -> g.writeNull();
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+        private final Map<String, Map<String, Field>> hoisted = new LinkedHashMap<>();
+
+        public Builder string(String source, String target) {
+            return string(source, target, IDENTITY);
+        }
+
+        // The transform also receives null for missing or null values, so it can supply a default.
+        public Builder string(String source, String target, UnaryOperator<String> transform) {
+            fields.put(source, new Field(target, Kind.STRING, null, transform, -1));
+            return this;
+        }
+
+        public Builder integer(String source, String target) {
+            return add(source, target, Kind.INT, null);
+        }
+
+        public Builder bool(String source, String target) {
+            return add(source, target, Kind.BOOLEAN, null);
+        }
+
+        public Builder nullableBool(String source, String target) {
+            return add(source, target, Kind.NULLABLE_BOOLEAN, null);
+        }
+
+        public Builder strings(String source, String target) {
+            return add(source, target, Kind.STRINGS, null);
+        }
+
+        public Builder object(String source, String target, JsonFilter nested) {
+            return add(source, target, Kind.OBJECT, nested);
+        }
+
+        // A single object is written as a one-element array, a missing list as an empty one.
+        public Builder objects(String source, String target, JsonFilter nested) {
+            return add(source, target, Kind.OBJECTS, nested);
+        }
+
+        // Writes the whitelisted fields of a nested object into the enclosing object.
+        public Builder hoist(String source, JsonFilter nested) {
+            hoisted.put(source, nested.hoistable());
+            return this;
+        }
+
+        public JsonFilter build() {
+            return new JsonFilter(fields, hoisted);
+        }
+
+        private Builder add(String source, String target, Kind kind, JsonFilter nested) {
+            fields.put(source, new Field(target, kind, nested, IDENTITY, -1));
+            return this;
+        }
+    }
+}
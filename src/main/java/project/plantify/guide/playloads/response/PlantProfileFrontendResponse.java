@@ -0,0 +1,40 @@
+package project.plantify.guide.playloads.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantProfileFrontendResponse {
+    private Section<SinglePlantResponseToFrontend> details;
+    private Section<PlantsGuideFrontendResponse> guide;
+    private Section<List<PlantsFAQFrontendResponse>> faq;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Section<T> {
+        private String status;
+        private String message;
+        private T data;
+
+        public static <T> Section<T> ok(T data) {
+            return new Section<>("OK", null, data);
+        }
+
+        public static <T> Section<T> notFound(String message) {
+            return new Section<>("NOT_FOUND", message, null);
+        }
+
+        public static <T> Section<T> error(String message) {
+            return new Section<>("ERROR", message, null);
+        }
+    }
+}
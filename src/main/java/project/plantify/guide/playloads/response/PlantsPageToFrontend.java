@@ -0,0 +1,20 @@
+package project.plantify.guide.playloads.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantsPageToFrontend {
+    private List<PlantsResponseToFrontend> data;
+    private int currentPage;
+    private int lastPage;
+    private int perPage;
+    private int total;
+}
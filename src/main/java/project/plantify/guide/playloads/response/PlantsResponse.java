@@ -13,12 +13,26 @@ public class PlantsResponse {
     @JsonProperty("data")
     private List<Plant> data;
 
+    @JsonProperty("current_page")
+    private int currentPage;
+
+    @JsonProperty("last_page")
+    private int lastPage;
+
+    @JsonProperty("per_page")
+    private int perPage;
+
+    @JsonProperty("total")
+    private int total;
+
     @Getter
     @Setter
     public static class Plant {
         private int id;
         @JsonProperty("common_name")
         private String commonName;
+        @JsonProperty("scientific_name")
+        private List<String> scientificName;
         @JsonProperty("default_image")
         private DefaultImage defaultImage;
 
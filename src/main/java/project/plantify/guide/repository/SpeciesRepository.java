@@ -0,0 +1,28 @@
+package project.plantify.guide.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import project.plantify.guide.models.Species;
+import project.plantify.guide.search.SpeciesName;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SpeciesRepository extends JpaRepository<Species, Integer> {
+
+    @Query("select new project.plantify.guide.search.SpeciesName(s.id, s.commonName, s.scientificName, s.originalUrl) " +
+            "from Species s where s.commonName is not null order by s.id")
+    List<SpeciesName> findAllNames();
+
+    List<Species> findByOrderByIdAsc(Pageable pageable);
+
+    // Species whose details keep failing sink to the back and are left out once they reach
+    // maxAttempts, until their last failure is older than retryBefore.
+    @Query("select s from Species s where s.details is null " +
+            "and (coalesce(s.detailsAttempts, 0) < :maxAttempts or s.detailsFailedAt < :retryBefore) " +
+            "order by coalesce(s.detailsAttempts, 0), s.id")
+    List<Species> findMissingDetails(@Param("maxAttempts") int maxAttempts, @Param("retryBefore") Instant retryBefore,
+                                     Pageable pageable);
+}
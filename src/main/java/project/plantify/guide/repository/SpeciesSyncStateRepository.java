@@ -0,0 +1,7 @@
+package project.plantify.guide.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import project.plantify.guide.models.SpeciesSyncState;
+
+public interface SpeciesSyncStateRepository extends JpaRepository<SpeciesSyncState, String> {
+}
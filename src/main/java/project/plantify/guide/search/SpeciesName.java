@@ -0,0 +1,4 @@
+package project.plantify.guide.search;
+
+public record SpeciesName(Integer id, String commonName, String scientificName, String originalUrl) {
+}
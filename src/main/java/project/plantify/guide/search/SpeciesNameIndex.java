@@ -0,0 +1,224 @@
+package project.plantify.guide.search;
+
+import org.springframework.stereotype.Component;
+import project.plantify.guide.cache.GuideCache;
+
+import java.util.*;
+
+@Component
+public class SpeciesNameIndex {
+
+    private static final int MAX_CANDIDATES = 512;
+    private static final int MAX_FUZZY_CANDIDATES = 64;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public void rebuild(List<SpeciesName> species) {
+        snapshot = Snapshot.of(species);
+    }
+
+    public int size() {
+        return snapshot.species.length;
+    }
+
+    public List<SpeciesName> findByPrefix(String query, int limit) {
+        String prefix = GuideCache.normalize(query);
+        Snapshot current = snapshot;
+        if (prefix.isEmpty() || current.keys.length == 0) {
+            return List.of();
+        }
+
+        Set<Integer> matches = new LinkedHashSet<>();
+        for (int i = lowerBound(current.keys, prefix);
+             i < current.keys.length && current.keys[i].startsWith(prefix) && matches.size() < MAX_CANDIDATES;
+             i++) {
+            matches.add(current.owners[i]);
+        }
+
+        return matches.stream()
+                .map(i -> current.species[i])
+                .sorted(byRelevance(prefix))
+                .limit(limit)
+                .toList();
+    }
+
+    public List<SpeciesName> findSimilar(String query, int limit) {
+        String normalized = GuideCache.normalize(query);
+        Snapshot current = snapshot;
+        if (normalized.length() < 3 || current.species.length == 0) {
+            return List.of();
+        }
+
+        int[] shared = new int[current.species.length];
+        for (String trigram : trigrams(normalized)) {
+            for (int owner : current.trigrams.getOrDefault(trigram, NO_POSTINGS)) {
+                shared[owner]++;
+            }
+        }
+
+        // Only the species sharing the most trigrams with the query get the (quadratic) edit distance check.
+        PriorityQueue<Integer> candidates = new PriorityQueue<>(Comparator.comparingInt(i -> shared[i]));
+        for (int i = 0; i < shared.length; i++) {
+            if (shared[i] == 0) {
+                continue;
+            }
+            candidates.add(i);
+            if (candidates.size() > MAX_FUZZY_CANDIDATES) {
+                candidates.poll();
+            }
+        }
+
+        int maxDistance = Math.max(1, normalized.length() / 4);
+        List<int[]> matches = new ArrayList<>();
+        for (int candidate : candidates) {
+            int distance = Integer.MAX_VALUE;
+            for (String term : current.terms[candidate]) {
+                distance = Math.min(distance, editDistance(normalized, term, maxDistance));
+            }
+            if (distance <= maxDistance) {
+                matches.add(new int[]{candidate, distance, shared[candidate]});
+            }
+        }
+
+        return matches.stream()
+                .sorted(Comparator.<int[]>comparingInt(m -> m[1]).thenComparingInt(m -> -m[2]).thenComparingInt(m -> m[0]))
+                .limit(limit)
+                .map(m -> current.species[m[0]])
+                .toList();
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "$" + word + "$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    // Levenshtein distance that gives up (returning max + 1) as soon as the bound is exceeded.
+    private static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Names starting with the query come before names that only contain a word starting with it.
+    private static Comparator<SpeciesName> byRelevance(String prefix) {
+        return Comparator.<SpeciesName>comparingInt(s -> GuideCache.normalize(s.commonName()).startsWith(prefix) ? 0 : 1)
+                .thenComparingInt(s -> s.commonName() == null ? Integer.MAX_VALUE : s.commonName().length())
+                .thenComparing(SpeciesName::id);
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(new SpeciesName[0], new String[0], new int[0], Map.of(), new String[0][]);
+
+        private final SpeciesName[] species;
+        private final String[] keys;
+        private final int[] owners;
+        private final Map<String, int[]> trigrams;
+        private final String[][] terms;
+
+        private Snapshot(SpeciesName[] species, String[] keys, int[] owners, Map<String, int[]> trigrams, String[][] terms) {
+            this.species = species;
+            this.keys = keys;
+            this.owners = owners;
+            this.trigrams = trigrams;
+            this.terms = terms;
+        }
+
+        // Every word start of every name becomes a key, so "cheese" finds "swiss cheese plant"
+        // and "banan" finds "Capsicum annuum 'Bananarama'".
+        private static Snapshot of(List<SpeciesName> species) {
+            SpeciesName[] entries = species.toArray(new SpeciesName[0]);
+            List<Map.Entry<String, Integer>> keys = new ArrayList<>();
+            for (int i = 0; i < entries.length; i++) {
+                addKeys(keys, entries[i].commonName(), i);
+                addKeys(keys, entries[i].scientificName(), i);
+            }
+            keys.sort(Map.Entry.comparingByKey());
+
+            Map<String, List<Integer>> postings = new HashMap<>();
+            String[][] terms = new String[entries.length][];
+            for (int i = 0; i < entries.length; i++) {
+                Set<String> names = new LinkedHashSet<>();
+                for (String name : new String[]{entries[i].commonName(), entries[i].scientificName()}) {
+                    String normalized = GuideCache.normalize(name);
+                    if (normalized.isEmpty()) {
+                        continue;
+                    }
+                    names.add(normalized);
+                    names.addAll(Arrays.asList(normalized.split("[^\\p{L}\\p{N}]+")));
+                }
+                names.remove("");
+                terms[i] = names.toArray(new String[0]);
+                for (String gram : trigrams(String.join(" ", names))) {
+                    postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(i);
+                }
+            }
+            Map<String, int[]> trigrams = new HashMap<>();
+            postings.forEach((gram, owners) -> trigrams.put(gram, owners.stream().mapToInt(Integer::intValue).toArray()));
+
+            String[] sortedKeys = new String[keys.size()];
+            int[] owners = new int[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                sortedKeys[i] = keys.get(i).getKey();
+                owners[i] = keys.get(i).getValue();
+            }
+            return new Snapshot(entries, sortedKeys, owners, trigrams, terms);
+        }
+
+        private static void addKeys(List<Map.Entry<String, Integer>> keys, String name, int owner) {
+            String normalized = GuideCache.normalize(name);
+            for (int i = 0; i < normalized.length(); i++) {
+                boolean wordStart = Character.isLetterOrDigit(normalized.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1)));
+                if (wordStart) {
+                    keys.add(Map.entry(normalized.substring(i), owner));
+                }
+            }
+        }
+    }
+}
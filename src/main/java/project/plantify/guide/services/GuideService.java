@@ -1,350 +1,505 @@
 package project.plantify.guide.services;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import project.plantify.guide.cache.CachedValue;
+import project.plantify.guide.cache.GuideCache;
+import project.plantify.guide.cache.NegativeCache;
+import project.plantify.guide.cache.StoredGuide;
+import project.plantify.guide.cache.SwrCache;
 import project.plantify.guide.exceptions.NotFoundSpeciesException;
 import project.plantify.guide.exceptions.PerenualApiException;
+import project.plantify.guide.mappers.GuideMapper;
+import project.plantify.guide.models.Species;
+import project.plantify.guide.passthrough.GuideJsonFilters;
+import project.plantify.guide.search.SpeciesName;
+import project.plantify.guide.search.SpeciesNameIndex;
+import project.plantify.upstream.SingleFlight;
+import project.plantify.upstream.UpstreamBudget;
+import project.plantify.upstream.UpstreamBudgetExceededException;
 import project.plantify.guide.playloads.response.*;
-
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 @Setter
 @Service
 public class GuideService {
 
+    private static final Logger log = LoggerFactory.getLogger(GuideService.class);
+
     @Autowired
     @Qualifier("Guide")
     private WebClient webClient;
 
+    @Autowired
+    private GuideCache guideCache;
+
+    @Autowired
+    private NegativeCache negativeCache;
+
+    @Autowired
+    private GuideMapper guideMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SpeciesMirrorService speciesMirrorService;
+
+    @Autowired
+    private SpeciesNameIndex speciesNameIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("blockingScheduler")
+    private Scheduler blockingScheduler;
+
     @Value("${plant.api.token}")
     private String apiToken;
 
-    public List<PlantsResponseToFrontend> getAllPlant() {
-        try {
-            PlantsResponse plants =  webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/v2/species-list")
-                            .queryParam("k", apiToken)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(PlantsResponse.class)
-                    .block();
-            return preparePlantsForFronted(Objects.requireNonNull(plants).getData());
-        } catch (RuntimeException e) {
-            System.out.println("Error: " + e.getMessage());
-            throw new PerenualApiException("Failed to connect with external API. Please try again later.");
+    @Value("${plant.guide.mirror.page-size:30}")
+    private int mirrorPageSize;
+
+    @Value("${plant.guide.search.fuzzy-limit:10}")
+    private int fuzzyLimit;
+
+    @Value("${plant.guide.stream.prefetch:4}")
+    private int streamPrefetch;
+
+    @Value("${plant.guide.stream.max-upstream-pages:10}")
+    private int streamMaxUpstreamPages;
+
+    @Value("${plant.guide.cache.care-guides.refresh-after:1d}")
+    private Duration careGuideRefreshAfter;
+
+    // Each SwrCache already merges concurrent loads of one key. The flights sit on the raw upstream
+    // bodies that the DTO and pass-through caches share, so together they make one call per key.
+    private SingleFlight<String, byte[]> speciesDetailsFlight;
+    private SingleFlight<String, byte[]> plantsFAQFlight;
+
+    private SwrCache<List<PlantsResponseToFrontend>> speciesListCache;
+    private SwrCache<List<PlantsResponseToFrontend>> speciesSearchCache;
+    private SwrCache<SinglePlantResponseToFrontend> speciesDetailsCache;
+    private SwrCache<List<PlantsGuideFrontendResponse>> careGuideListCache;
+    private SwrCache<List<PlantsFAQFrontendResponse>> faqCache;
+    private SwrCache<byte[]> speciesDetailsJsonCache;
+    private SwrCache<byte[]> faqJsonCache;
+
+    @PostConstruct
+    void initSingleFlights() {
+        speciesDetailsFlight = new SingleFlight<>("perenual.species-details", meterRegistry);
+        plantsFAQFlight = new SingleFlight<>("perenual.article-faq-list", meterRegistry);
+
+        speciesListCache = guideCache.create("species-list", key -> loadAllPlant());
+        speciesSearchCache = guideCache.create("species-search", this::loadPlantsBySpecies);
+        speciesDetailsCache = guideCache.create("species-details", this::loadSinglePlant);
+        careGuideListCache = guideCache.create("care-guide-list", this::loadPlantsGuide);
+        faqCache = guideCache.create("faq", this::loadPlantsFAQ);
+        speciesDetailsJsonCache = guideCache.create("species-details-json", this::loadSinglePlantJson);
+        faqJsonCache = guideCache.create("faq-json", this::loadPlantsFAQJson);
+    }
+
+    public Mono<CachedValue<List<PlantsResponseToFrontend>>> getAllPlant() {
+        return speciesListCache.get(GuideCache.ALL_SPECIES_KEY);
+    }
+
+    private Mono<List<PlantsResponseToFrontend>> loadAllPlant() {
+        return blocking(speciesMirrorService::isCatalogComplete)
+                .flatMap(complete -> complete
+                        ? loadMirroredFirstPage()
+                        : requestSpeciesPage(1).map(plants -> guideMapper.toPlants(plants.getData()))
+                                .onErrorResume(CallNotPermittedException.class, e -> loadMirroredFirstPage()
+                                        .filter(plants -> !plants.isEmpty())
+                                        .switchIfEmpty(Mono.error(e))))
+                .onErrorMap(this::toApiException);
+    }
+
+    private Mono<List<PlantsResponseToFrontend>> loadMirroredFirstPage() {
+        return blocking(() -> guideMapper.toSpecies(toSpeciesNames(speciesMirrorService.findFirstPage(mirrorPageSize))));
+    }
+
+    public Mono<PlantsPageToFrontend> getPlantsPage(int page) {
+        return blocking(speciesMirrorService::isCatalogComplete)
+                .flatMap(complete -> complete
+                        ? blocking(() -> {
+                            Page<Species> species = speciesMirrorService.findPage(page, mirrorPageSize);
+                            return new PlantsPageToFrontend(guideMapper.toSpecies(toSpeciesNames(species.getContent())),
+                                    page, Math.max(species.getTotalPages(), 1), mirrorPageSize, (int) species.getTotalElements());
+                        })
+                        : requestSpeciesPage(page).map(plants -> new PlantsPageToFrontend(guideMapper.toPlants(plants.getData()),
+                                plants.getCurrentPage(), plants.getLastPage(), plants.getPerPage(), plants.getTotal())))
+                .onErrorMap(this::toApiException);
+    }
+
+    // Walks the catalog page by page as the subscriber consumes it, prefetching at most
+    // plant.guide.stream.prefetch pages. Without a complete mirror every page costs an upstream
+    // request, so the walk is capped at plant.guide.stream.max-upstream-pages and flagged as truncated.
+    public Mono<PlantsStream> streamAllPlants() {
+        return blocking(speciesMirrorService::isCatalogComplete)
+                .flatMap(complete -> getPlantsPage(1).map(first -> {
+                    int lastPage = complete ? first.getLastPage() : Math.min(first.getLastPage(), streamMaxUpstreamPages);
+                    Flux<PlantsResponseToFrontend> plants = Flux.concat(Flux.just(first), Flux.range(2, Math.max(lastPage - 1, 0))
+                                    .flatMapSequential(this::getPlantsPage, streamPrefetch))
+                            .flatMapIterable(PlantsPageToFrontend::getData);
+                    return new PlantsStream(plants, lastPage < first.getLastPage());
+                }));
+    }
+
+    public record PlantsStream(Flux<PlantsResponseToFrontend> plants, boolean truncated) {
+    }
+
+    public Mono<CachedValue<List<PlantsResponseToFrontend>>> getAllPlantsBySpecies(String species) {
+        String key = GuideCache.normalize(species);
+        return negativeCache.guard("species-search", key, () -> speciesSearchCache.get(key));
+    }
+
+    private Mono<List<PlantsResponseToFrontend>> loadPlantsBySpecies(String species) {
+        return blocking(speciesMirrorService::isCatalogComplete)
+                .flatMap(complete -> complete ? searchIndex(species) : requestPlantsBySpecies(species)
+                        .onErrorResume(CallNotPermittedException.class, e -> speciesNameIndex.size() > 0 ? searchIndex(species) : Mono.error(e)))
+                .onErrorMap(this::toApiException);
+    }
+
+    public Mono<List<PlantsResponseToFrontend>> autocompleteSpecies(String prefix, int limit) {
+        if (speciesNameIndex.size() == 0) {
+            return getAllPlantsBySpecies(prefix).map(plants -> plants.value().stream().limit(limit).toList());
         }
+        return Mono.fromSupplier(() -> guideMapper.toSpecies(speciesNameIndex.findByPrefix(prefix, limit)));
     }
 
-    public List<PlantsResponseToFrontend> getAllPlantsBySpecies(String species) {
-        try {
-            PlantsResponse plants = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/v2/species-list")
-                            .queryParam("key", apiToken)
-                            .queryParam("q", species)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(PlantsResponse.class)
-                    .block();
-
-            List<PlantsResponseToFrontend> plantsResponseToFrontends = preparePlantsForFronted(Objects.requireNonNull(plants).getData());
-
-            Set<String> repeatedNames = new HashSet<>();
-            List<PlantsResponseToFrontend> uniquePlants = plantsResponseToFrontends.stream()
-                    .filter(plant -> repeatedNames.add(plant.getCommonName()))
-                    .collect(Collectors.toList());
-
-            uniquePlants.forEach(plant -> {
-                if (plant.getOriginalUrl() == null || plant.getOriginalUrl().isEmpty() || plant.getOriginalUrl().contains("upgrade_access.jpg")) {
-                    plant.setOriginalUrl("https://images.unsplash.com/photo-1512428813834-c702c7702b78?crop=entropy&cs=tinysrgb&fit=max&fm=jpg&ixid=M3w0NTYyMDF8MHwxfHNlYXJjaHwxMXx8cGxhbnR8ZW58MHx8fHwxNzQ0MTMxOTgxfDA&ixlib=rb-4.0.3&q=80&w=1080");
-                }
-            });
-
-            if (uniquePlants.isEmpty()) {
-                System.out.println("No plants found for the given species.");
-                throw new NotFoundSpeciesException("No plants found for the given species.");
+    public Mono<CachedValue<SinglePlantResponseToFrontend>> getSinglePlant(String id) {
+        return speciesDetailsCache.get(id.trim());
+    }
+
+    private Mono<SinglePlantResponseToFrontend> loadSinglePlant(String id) {
+        return blocking(() -> speciesMirrorService.findDetails(id))
+                .flatMap(mirrored -> mirrored.map(Mono::just).orElseGet(() -> requestSpeciesDetailsBody(id)
+                        .map(body -> readJson(body, SinglePlantResponse.class))))
+                .map(guideMapper::toFrontend)
+                .onErrorMap(this::toApiException);
+    }
+
+    // Shared by loadSinglePlant and loadSinglePlantJson. Details fetched on either path are
+    // written through to the mirror.
+    private Mono<byte[]> requestSpeciesDetailsBody(String id) {
+        return speciesDetailsFlight.execute(id, () -> webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/v2/species/details/").path(id)
+                        .queryParam("key", apiToken)
+                        .build())
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .switchIfEmpty(emptyResponse())
+                .flatMap(body -> blocking(() -> {
+                    speciesMirrorService.saveDetails(readJson(body, SinglePlantResponse.class));
+                    return body;
+                })));
+    }
+
+    public Mono<CachedValue<List<PlantsGuideFrontendResponse>>> getPlantsGuide(String name) {
+        return careGuideListCache.get(GuideCache.normalize(name));
+    }
+
+    private Mono<List<PlantsGuideFrontendResponse>> loadPlantsGuide(String name) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/species-care-guide-list")
+                        .queryParam("key", apiToken)
+                        .queryParam("q", name)
+                        .build())
+                .retrieve()
+                .bodyToMono(PlantsGuideResponse.class)
+                .switchIfEmpty(emptyResponse())
+                .map(guides -> guideMapper.toGuides(guides.getData()))
+                .doOnNext(guides -> storeGuides(name, guides))
+                .onErrorMap(this::toApiException);
+    }
+
+    public Mono<CachedValue<PlantsGuideFrontendResponse>> getPlantsGuideById(String speciesId, String name) {
+        StoredGuide stored = guideCache.getCareGuides().getIfPresent(speciesId);
+        if (stored != null) {
+            if (stored.isOlderThan(careGuideRefreshAfter)) {
+                careGuideListCache.refresh(stored.name());
             }
-            return uniquePlants;
-        } catch (NotFoundSpeciesException e) {
-            throw e;
-        } catch (RuntimeException e) {
-            System.out.println("Error: " + e.getMessage());
-            throw new PerenualApiException("Failed to connect with external API. Please try again later.");
+            return Mono.just(new CachedValue<>(stored.guide(), stored.fetchedAt(), careGuideRefreshAfter, stored.etag()));
         }
 
+        // The guide dropped out of the care-guides cache while its list is still cached: it is stored
+        // again, so its ETag is computed once here and later requests take the path above.
+        return getPlantsGuide(name)
+                .flatMap(guides -> Mono.justOrEmpty(guides.value().stream()
+                        .filter(g -> Objects.equals(g.getSpeciesId(), speciesId))
+                        .findFirst()
+                        .map(guide -> {
+                            StoredGuide restored = guideCache.getCareGuides().get(speciesId, id -> new StoredGuide(guide,
+                                    GuideCache.normalize(name), guides.fetchedAt(), guideCache.etag(guide)));
+                            return new CachedValue<>(restored.guide(), restored.fetchedAt(), guides.softTtl(), restored.etag());
+                        })))
+                .switchIfEmpty(Mono.error(() ->
+                        new NotFoundSpeciesException(String.format("Guide not found for species with name %s", name))));
     }
 
-    public SinglePlantResponseToFrontend getSinglePlant(String id) {
-        try {
-            SinglePlantResponse plant = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/v2/species/details/").path(id)
-                            .queryParam("key", apiToken)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(SinglePlantResponse.class)
-                    .block();
-
-            System.out.println("CHECK2");
-            return prepareSinglePlantForFronted(Objects.requireNonNull(plant));
-        } catch (RuntimeException e) {
-            System.out.println("Error: " + e.getMessage());
-            throw new PerenualApiException("Failed to connect with external API. Please try again later.");
+    private void storeGuides(String name, List<PlantsGuideFrontendResponse> guides) {
+        Instant now = Instant.now();
+        for (PlantsGuideFrontendResponse guide : guides) {
+            guideCache.getCareGuides().put(guide.getSpeciesId(), new StoredGuide(guide, name, now, guideCache.etag(guide)));
         }
     }
 
-    public List<PlantsGuideFrontendResponse> getPlantsGuide(String name) {
+    // Details, care guide and FAQ are requested concurrently; a failing section is reported
+    // in its status instead of failing the whole profile. Without a name, the guide and FAQ
+    // lookups have to wait for the species' common name from the details.
+    public Mono<PlantProfileFrontendResponse> getPlantProfile(String speciesId, String name) {
+        Mono<SinglePlantResponseToFrontend> details = getSinglePlant(speciesId).map(CachedValue::value).cache();
+        Mono<String> commonName = name != null && !name.isBlank()
+                ? Mono.just(name)
+                : details.map(plant -> plant.getCommonName().toLowerCase()).onErrorResume(e -> Mono.empty());
+
+        return Mono.zip(
+                        section(details),
+                        section(commonName.flatMap(n -> getPlantsGuideById(speciesId, n).map(CachedValue::value))),
+                        section(commonName.flatMap(n -> getPlantsFAQ(n).map(CachedValue::value))))
+                .map(sections -> new PlantProfileFrontendResponse(sections.getT1(), sections.getT2(), sections.getT3()));
+    }
+
+    private static <T> Mono<PlantProfileFrontendResponse.Section<T>> section(Mono<T> source) {
+        return source
+                .map(PlantProfileFrontendResponse.Section::ok)
+                .defaultIfEmpty(PlantProfileFrontendResponse.Section.notFound("Species name is unknown."))
+                .onErrorResume(NotFoundSpeciesException.class, e -> Mono.just(PlantProfileFrontendResponse.Section.notFound(e.getMessage())))
+                .onErrorResume(e -> Mono.just(PlantProfileFrontendResponse.Section.error(e.getMessage())));
+    }
+
+    public Mono<CachedValue<List<PlantsFAQFrontendResponse>>> getPlantsFAQ(String name) {
+        String key = GuideCache.normalize(name);
+        return negativeCache.guard("faq", key, () -> faqCache.get(key));
+    }
+
+    private Mono<List<PlantsFAQFrontendResponse>> loadPlantsFAQ(String name) {
+        return requestPlantsFAQBody(name)
+                .map(body -> readJson(body, PlantsFAQResponse.class))
+                .map(plantsFAQ -> {
+                    List<PlantsFAQFrontendResponse> faq = guideMapper.toFAQ(plantsFAQ.getData());
+                    if (faq.isEmpty()) {
+                        log.debug("No FAQ found for {}", name);
+                        throw new NotFoundSpeciesException("No plants found for the given species.");
+                    }
+                    return faq;
+                })
+                .onErrorMap(this::toApiException);
+    }
+
+    // Shared by loadPlantsFAQ and loadPlantsFAQJson.
+    private Mono<byte[]> requestPlantsFAQBody(String name) {
+        return plantsFAQFlight.execute(name, () -> webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/article-faq-list")
+                        .queryParam("key", apiToken)
+                        .queryParam("q", name)
+                        .build())
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .switchIfEmpty(emptyResponse()));
+    }
+
+    // Pass-through variants: the upstream (or mirrored) JSON is filtered token by token straight
+    // into the frontend JSON, without binding either DTO.
+    public Mono<CachedValue<byte[]>> getSinglePlantJson(String id) {
+        return speciesDetailsJsonCache.get(id.trim());
+    }
+
+    private Mono<byte[]> loadSinglePlantJson(String id) {
+        return blocking(() -> speciesMirrorService.findDetailsJson(id))
+                .flatMap(mirrored -> mirrored
+                        .map(json -> blocking(() -> filterJson(objectMapper.getFactory().createParser(json),
+                                GuideJsonFilters.SINGLE_PLANT::writeObject)))
+                        .orElseGet(() -> requestSpeciesDetailsBody(id)
+                                .map(body -> filterJson(body, GuideJsonFilters.SINGLE_PLANT::writeObject))))
+                .onErrorMap(this::toApiException);
+    }
+
+    public Mono<CachedValue<byte[]>> getPlantsFAQJson(String name) {
+        String key = GuideCache.normalize(name);
+        return negativeCache.guard("faq", key, () -> faqJsonCache.get(key));
+    }
+
+    private Mono<byte[]> loadPlantsFAQJson(String name) {
+        return requestPlantsFAQBody(name)
+                .map(body -> filterJson(body, (p, g) -> {
+                    if (GuideJsonFilters.FAQ.writeArrayField(p, g, "data") == 0) {
+                        log.debug("No FAQ found for {}", name);
+                        throw new NotFoundSpeciesException("No plants found for the given species.");
+                    }
+                }))
+                .onErrorMap(this::toApiException);
+    }
+
+    private interface JsonWriter {
+        void write(JsonParser p, JsonGenerator g) throws IOException;
+    }
+
+    private byte[] filterJson(byte[] body, JsonWriter writer) {
         try {
-            PlantsGuideResponse guides = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/species-care-guide-list")
-                            .queryParam("key", apiToken)
-                            .queryParam("q", name)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(PlantsGuideResponse.class)
-                    .block();
-
-            return preparePlantsGuideForFrontend(Objects.requireNonNull(guides).getData());
-        } catch (RuntimeException e) {
-            System.out.println("Error: " + e.getMessage());
-            throw new PerenualApiException("Failed to connect with external API. Please try again later.");
+            return filterJson(objectMapper.getFactory().createParser(body), writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    public PlantsGuideFrontendResponse getPlantsGuideById(String speciesId, String name) throws RuntimeException {
+    private <T> T readJson(byte[] body, Class<T> type) {
         try {
-            List<PlantsGuideFrontendResponse> guides = getPlantsGuide(name);
-            Optional<PlantsGuideFrontendResponse> guidesResponse = guides.stream().filter(g
-                    -> Objects.equals(g.getSpeciesId(), speciesId)).findFirst();
-
-            return guidesResponse.orElseThrow(() ->
-                    new NotFoundSpeciesException(String.format("Guide not found for species with name %s", name))
-            );
-        } catch (NotFoundSpeciesException e) {
-            throw e;
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    public List<PlantsFAQFrontendResponse> getPlantsFAQ(String name) {
-        try {
-            PlantsFAQResponse plantsFAQ = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/article-faq-list")
-                            .queryParam("key", apiToken)
-                            .queryParam("q", name)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(PlantsFAQResponse.class)
-                    .block();
-
-            if (preparePlantsFAQForFrontend(Objects.requireNonNull(plantsFAQ).getData()).isEmpty()) {
-                System.out.println("No plants found for the given species.");
-                throw new NotFoundSpeciesException("No plants found for the given species.");
+    private byte[] filterJson(JsonParser parser, JsonWriter writer) {
+        try (JsonParser p = parser; ByteArrayBuilder out = new ByteArrayBuilder(objectMapper.getFactory()._getBufferRecycler())) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Unexpected response from external API");
+            }
+            try (JsonGenerator g = objectMapper.getFactory().createGenerator(out)) {
+                writer.write(p, g);
             }
-            return preparePlantsFAQForFrontend(Objects.requireNonNull(plantsFAQ).getData());
-        } catch (NotFoundSpeciesException e) {
-            throw e;
-        } catch (RuntimeException e) {
-            System.out.println("Error: " + e.getMessage());
-            throw new PerenualApiException("Failed to connect with external API. Please try again later.");
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    private List<PlantsFAQFrontendResponse> preparePlantsFAQForFrontend(List<PlantsFAQResponse.Data> data) {
-        List<PlantsFAQFrontendResponse> plantsFAQResponseToFrontends = new ArrayList<>();
-        for (PlantsFAQResponse.Data faq : data) {
-            PlantsFAQFrontendResponse faqResponse = new PlantsFAQFrontendResponse();
-            faqResponse.setId(faq.getId());
-            faqResponse.setQuestion(faq.getQuestion());
-            faqResponse.setAnswer(faq.getAnswer());
-            plantsFAQResponseToFrontends.add(faqResponse);
-        }
-        return plantsFAQResponseToFrontends;
+    public PlantsResponse fetchSpeciesPage(int page) {
+        return requestSpeciesPage(page).onErrorMap(this::toApiException).contextWrite(UpstreamBudget.background()).block();
     }
 
-    private List<PlantsGuideFrontendResponse> preparePlantsGuideForFrontend(List<PlantsGuideResponse.PlantData> guides) {
-        List<PlantsGuideFrontendResponse> plantsGuideResponseToFrontends = new ArrayList<>();
-        for (PlantsGuideResponse.PlantData guide : guides) {
-            PlantsGuideFrontendResponse plantResponse = preparePlantGuide(guide);
-            plantsGuideResponseToFrontends.add(plantResponse);
-        }
-        return plantsGuideResponseToFrontends;
-    }
-
-    private PlantsGuideFrontendResponse preparePlantGuide(PlantsGuideResponse.PlantData plant) {
-        PlantsGuideFrontendResponse plantResponse = new PlantsGuideFrontendResponse();
-        plantResponse.setId(String.valueOf(plant.getId()));
-        plantResponse.setSpeciesId(String.valueOf(plant.getSpeciesId()));
-        plantResponse.setCommonName(plant.getCommonName());
-
-        List<PlantsGuideFrontendResponse.Section> sections = plant.getSection().stream()
-                .map(s -> {
-                    PlantsGuideFrontendResponse.Section section = new PlantsGuideFrontendResponse.Section();
-                    section.setId(String.valueOf(s.getId()));
-                    section.setType(s.getType());
-                    section.setDescription(s.getDescription());
-                    return section;
-                })
-                .collect(Collectors.toList());
-        plantResponse.setSections(sections);
-
-        return plantResponse;
-    }
-
-    private SinglePlantResponseToFrontend prepareSinglePlantForFronted(SinglePlantResponse plant) {
-        SinglePlantResponseToFrontend plantResponse = new SinglePlantResponseToFrontend();
-        plantResponse.setId(plant.getId());
-        plantResponse.setCommonName(plant.getCommonName());
-        plantResponse.setFamily(plant.getFamily());
-        plantResponse.setType(plant.getType());
-
-//        if (plant.getDimensions() == null || plant.getDimensions().isEmpty()) {
-//            List<SinglePlantResponseToFrontend.Dimensions> newDimensions = new ArrayList<>();
-//            SinglePlantResponseToFrontend.Dimensions dimension = new SinglePlantResponseToFrontend.Dimensions();
-//            dimension.setType("Unknown");
-//            dimension.setMinValue("Unknown");
-//            dimension.setMaxValue("Unknown");
-//            dimension.setUnit("Unknown");
-//            plantResponse.setDimensions(newDimensions);
-//            plantResponse.getDimensions().add(dimension);
-//        } else {
-            List<SinglePlantResponseToFrontend.Dimensions> frontendDimensions = plant.getDimensions().stream()
-                    .map(d -> {
-                        SinglePlantResponseToFrontend.Dimensions fd = new SinglePlantResponseToFrontend.Dimensions();
-                        fd.setType(d.getType());
-                        fd.setMinValue(d.getMinValue());
-                        fd.setMaxValue(d.getMaxValue());
-                        fd.setUnit(d.getUnit());
-                        return fd;
-                    })
-                    .collect(Collectors.toList());
-            plantResponse.setDimensions(frontendDimensions);
-//        }
-
-        plantResponse.setCycle(plant.getCycle());
-
-        plantResponse.setWatering(plant.getWatering());
-
-//        if (plant.getWateringGeneralBenchmark() == null) {
-//            plantResponse.setWateringGeneralBenchmark(new SinglePlantResponseToFrontend.WateringBenchmark());
-//            plantResponse.getWateringGeneralBenchmark().setUnit("Unknown");
-//            plantResponse.getWateringGeneralBenchmark().setValue("Unknown");
-//        } else {
-            SinglePlantResponseToFrontend.WateringBenchmark wateringBenchmark = new SinglePlantResponseToFrontend.WateringBenchmark();
-            wateringBenchmark.setUnit(plant.getWateringGeneralBenchmark().getUnit());
-            wateringBenchmark.setValue(plant.getWateringGeneralBenchmark().getValue());
-            plantResponse.setWateringGeneralBenchmark(wateringBenchmark);
-//        }
-
-//        if (plant.getPlantAnatomy() == null || plant.getPlantAnatomy().isEmpty()) {
-//            List<SinglePlantResponseToFrontend.PlantPart> newParts = new ArrayList<>();
-//            SinglePlantResponseToFrontend.PlantPart plantPart = new SinglePlantResponseToFrontend.PlantPart();
-//            plantPart.setPart("Unknown");
-//            plantPart.getColor().add("Unknown");
-//            plantResponse.setPlantAnatomy(newParts);
-//            plantResponse.getPlantAnatomy().add(plantPart);
-//        } else {
-            List<SinglePlantResponseToFrontend.PlantPart> plantAnatomy = plant.getPlantAnatomy().stream()
-                    .map(pa -> {
-                        SinglePlantResponseToFrontend.PlantPart part = new SinglePlantResponseToFrontend.PlantPart();
-                        part.setPart(pa.getPart());
-                        part.setColor(pa.getColor());
-                        return part;
-                    })
-                    .collect(Collectors.toList());
-            plantResponse.setPlantAnatomy(plantAnatomy);
-//        }
-
-        plantResponse.setSunlight(plant.getSunlight());
-        plantResponse.setPruningMonth(plant.getPruningMonth());
-
-        System.out.println("-------------");
-        System.out.println(plant.getPruningCount());
-        System.out.println("-------------");
-//        if (plant.getPruningCount() == null) {
-//            List<SinglePlantResponseToFrontend.PruningCount> newPruningCount = new ArrayList<>();
-//            SinglePlantResponseToFrontend.PruningCount pruningCount = new SinglePlantResponseToFrontend.PruningCount();
-//            pruningCount.setInterval("Unknown");
-//            pruningCount.setAmount(0);
-//            plantResponse.setPruningCount(newPruningCount);
-//            plantResponse.getPruningCount().add(pruningCount);
-//        } else {
-            List<SinglePlantResponseToFrontend.PruningCount> plantPruningCount = plant.getPruningCount().stream()
-                    .map(pa -> {
-                        SinglePlantResponseToFrontend.PruningCount count = new SinglePlantResponseToFrontend.PruningCount();
-                        count.setAmount(pa.getAmount());
-                        count.setInterval(pa.getInterval());
-                        return count;
-                    })
-                    .collect(Collectors.toList());
-            plantResponse.setPruningCount(plantPruningCount);
-//        }
-
-        plantResponse.setSeeds(plant.getSeeds());
-        plantResponse.setPropagation(plant.getPropagation());
-        plantResponse.setFlowers(plant.isFlowers());
-        plantResponse.setFloweringSeason(plant.getFloweringSeason());
-
-        plantResponse.setSoil(plant.getSoil());
-        plantResponse.setCones(plant.getCones());
-        plantResponse.setFruits(plant.getFruits());
-        plantResponse.setEdibleFruit(plant.getEdibleFruit());
-        plantResponse.setFruitingSeason(plant.getFruitingSeason());
-        plantResponse.setHarvestSeason(plant.getHarvestSeason());
-        plantResponse.setHarvestMethod(plant.getHarvestMethod());
-        plantResponse.setLeaf(plant.getLeaf());
-        plantResponse.setEdibleLeaf(plant.getEdibleLeaf());
-        plantResponse.setGrowthRate(plant.getGrowthRate());
-        plantResponse.setMaintenance(plant.getMaintenance());
-        plantResponse.setMedicinal(plant.getMedicinal());
-        plantResponse.setPoisonousToHumans(plant.getPoisonousToHumans());
-        plantResponse.setPoisonousToPets(plant.getPoisonousToPets());
-        plantResponse.setDroughtTolerant(plant.getDroughtTolerant());
-        plantResponse.setSaltTolerant(plant.getSaltTolerant());
-        plantResponse.setThorny(plant.getThorny());
-        plantResponse.setInvasive(plant.getInvasive());
-        plantResponse.setRare(plant.getRare());
-        plantResponse.setTropical(plant.getTropical());
-        plantResponse.setCuisine(plant.getCuisine());
-        plantResponse.setIndoor(plant.getIndoor());
-        plantResponse.setCareLevel(plant.getCareLevel());
-        plantResponse.setDescription(plant.getDescription());
-
-        if (plant.getDefaultImage() == null || plant.getDefaultImage().getOriginalUrl().contains("upgrade_access.jpg")) {
-            plantResponse.setOriginalUrl("https://images.unsplash.com/photo-1512428813834-c702c7702b78?crop=entropy&cs=tinysrgb&fit=max&fm=jpg&ixid=M3w0NTYyMDF8MHwxfHNlYXJjaHwxMXx8cGxhbnR8ZW58MHx8fHwxNzQ0MTMxOTgxfDA&ixlib=rb-4.0.3&q=80&w=1080");
-        } else {
-            plantResponse.setOriginalUrl(plant.getDefaultImage().getOriginalUrl());
-        }
+    public SinglePlantResponse fetchSpeciesDetails(String id) {
+        return requestSpeciesDetails(id).onErrorMap(this::toApiException).contextWrite(UpstreamBudget.background()).block();
+    }
+
+    private Mono<PlantsResponse> requestSpeciesPage(int page) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/v2/species-list")
+                        .queryParam("key", apiToken)
+                        .queryParam("page", page)
+                        .build())
+                .retrieve()
+                .bodyToMono(PlantsResponse.class)
+                .switchIfEmpty(emptyResponse());
+    }
+
+    private Mono<SinglePlantResponse> requestSpeciesDetails(String id) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/v2/species/details/").path(id)
+                        .queryParam("key", apiToken)
+                        .build())
+                .retrieve()
+                .bodyToMono(SinglePlantResponse.class)
+                .switchIfEmpty(emptyResponse());
+    }
+
+    private Mono<List<PlantsResponseToFrontend>> requestPlantsBySpecies(String species) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/v2/species-list")
+                        .queryParam("key", apiToken)
+                        .queryParam("q", species)
+                        .build())
+                .retrieve()
+                .bodyToMono(PlantsResponse.class)
+                .switchIfEmpty(emptyResponse())
+                .map(plants -> prepareUniquePlants(guideMapper.toPlants(plants.getData())))
+                .onErrorResume(NotFoundSpeciesException.class, e -> {
+                    List<SpeciesName> similar = speciesNameIndex.findSimilar(species, fuzzyLimit);
+                    return similar.isEmpty() ? Mono.error(e) : Mono.just(prepareUniquePlants(guideMapper.toSpecies(similar)));
+                });
+    }
+
+    private Mono<List<PlantsResponseToFrontend>> searchIndex(String query) {
+        return Mono.fromSupplier(() -> {
+            List<SpeciesName> matches = speciesNameIndex.findByPrefix(query, Integer.MAX_VALUE);
+            if (matches.isEmpty()) {
+                matches = speciesNameIndex.findSimilar(query, fuzzyLimit);
+            }
+            return prepareUniquePlants(guideMapper.toSpecies(matches));
+        });
+    }
+
+    // Mirror reads and writes go through JPA, which blocks, so they must stay off the event loop.
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(blockingScheduler);
+    }
 
-        return plantResponse;
+    private static <T> Mono<T> emptyResponse() {
+        return Mono.error(() -> new IllegalStateException("Empty response from external API"));
     }
 
-    private List<PlantsResponseToFrontend> preparePlantsForFronted(List<PlantsResponse.Plant> plants) {
-        List<PlantsResponseToFrontend> plantsResponseToFrontends = new ArrayList<>();
-        for (PlantsResponse.Plant plant : plants) {
-            PlantsResponseToFrontend plantResponse = preperePlant(plant);
-            plantsResponseToFrontends.add(plantResponse);
+    private Throwable toApiException(Throwable e) {
+        if (e instanceof NotFoundSpeciesException || e instanceof PerenualApiException) {
+            return e;
+        }
+        if (e instanceof CallNotPermittedException) {
+            log.warn("Perenual call rejected: {}", e.getMessage());
+            return new PerenualApiException("External API is temporarily unavailable. Please try again later.");
+        }
+        if (e instanceof UpstreamBudgetExceededException) {
+            log.warn("Perenual request budget exhausted: {}", e.getMessage());
+            return new PerenualApiException("Too many requests to external API. Please try again later.");
         }
-        return plantsResponseToFrontends;
+        log.error("Perenual request failed: {}", e.toString());
+        return new PerenualApiException("Failed to connect with external API. Please try again later.");
     }
 
-    private PlantsResponseToFrontend preperePlant(PlantsResponse.Plant plant) {
-        PlantsResponseToFrontend plantResponse = new PlantsResponseToFrontend();
-        plantResponse.setId(String.valueOf(plant.getId()));
-        plantResponse.setCommonName(plant.getCommonName());
-        if (plant.getDefaultImage() != null) {
-            plantResponse.setOriginalUrl(plant.getDefaultImage().getOriginalUrl());
-        } else {
-            plantResponse.setOriginalUrl("https://images.unsplash.com/photo-1512428813834-c702c7702b78?crop=entropy&cs=tinysrgb&fit=max&fm=jpg&ixid=M3w0NTYyMDF8MHwxfHNlYXJjaHwxMXx8cGxhbnR8ZW58MHx8fHwxNzQ0MTMxOTgxfDA&ixlib=rb-4.0.3&q=80&w=1080");
+    private List<PlantsResponseToFrontend> prepareUniquePlants(List<PlantsResponseToFrontend> plantsResponseToFrontends) {
+        Set<String> repeatedNames = new HashSet<>();
+        List<PlantsResponseToFrontend> uniquePlants = plantsResponseToFrontends.stream()
+                .filter(plant -> repeatedNames.add(plant.getCommonName()))
+                .collect(Collectors.toList());
+
+        uniquePlants.forEach(plant -> {
+            if (plant.getOriginalUrl() == null || plant.getOriginalUrl().isEmpty() || plant.getOriginalUrl().contains("upgrade_access.jpg")) {
+                plant.setOriginalUrl(GuideMapper.DEFAULT_IMAGE_URL);
+            }
+        });
+
+        if (uniquePlants.isEmpty()) {
+            log.debug("No species left to return after removing duplicates");
+            throw new NotFoundSpeciesException("No plants found for the given species.");
         }
-        return plantResponse;
+        return uniquePlants;
+    }
+
+    private static List<SpeciesName> toSpeciesNames(List<Species> species) {
+        return species.stream()
+                .map(s -> new SpeciesName(s.getId(), s.getCommonName(), s.getScientificName(), s.getOriginalUrl()))
+                .toList();
     }
 }
@@ -1,35 +1,53 @@
 package project.plantify.guide.services;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import project.plantify.guide.playloads.response.SinglePlantResponse;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+// Perenual sends pruning_count either as an array or as a single object. It is read token by token,
+// so no JsonNode tree is built; elements that are not objects and unknown fields are skipped.
 public class PruningCountDeserializer extends JsonDeserializer<List<SinglePlantResponse.PruningCount>> {
 
     @Override
     public List<SinglePlantResponse.PruningCount> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        ObjectCodec codec = p.getCodec();
-        JsonNode node = codec.readTree(p);
-
         List<SinglePlantResponse.PruningCount> result = new ArrayList<>();
 
-        ObjectMapper mapper = (ObjectMapper) codec;
-
-        if (node.isArray()) {
-            for (JsonNode element : node) {
-                result.add(mapper.treeToValue(element, SinglePlantResponse.PruningCount.class));
+        if (p.isExpectedStartArrayToken()) {
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (p.currentToken() == JsonToken.START_OBJECT) {
+                    result.add(readPruningCount(p));
+                } else {
+                    p.skipChildren();
+                }
             }
-        } else if (node.isObject()) {
-            result.add(mapper.treeToValue(node, SinglePlantResponse.PruningCount.class));
+        } else if (p.isExpectedStartObjectToken()) {
+            result.add(readPruningCount(p));
+        } else {
+            p.skipChildren();
         }
 
         return result;
     }
-}
 
+    // Expects the parser on START_OBJECT and leaves it on the matching END_OBJECT.
+    private static SinglePlantResponse.PruningCount readPruningCount(JsonParser p) throws IOException {
+        SinglePlantResponse.PruningCount count = new SinglePlantResponse.PruningCount();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value.isStructStart()) {
+                p.skipChildren();
+            } else if ("amount".equals(field)) {
+                count.setAmount(p.getValueAsInt());
+            } else if ("interval".equals(field)) {
+                count.setInterval(p.getValueAsString());
+            }
+        }
+        return count;
+    }
+}
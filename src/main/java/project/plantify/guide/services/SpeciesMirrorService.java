@@ -0,0 +1,177 @@
+package project.plantify.guide.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import project.plantify.guide.models.Species;
+import project.plantify.guide.models.SpeciesSyncState;
+import project.plantify.guide.playloads.response.PlantsResponse;
+import project.plantify.guide.playloads.response.SinglePlantResponse;
+import project.plantify.guide.repository.SpeciesRepository;
+import project.plantify.guide.repository.SpeciesSyncStateRepository;
+import project.plantify.guide.search.SpeciesName;
+import project.plantify.guide.search.SpeciesNameIndex;
+import project.plantify.guide.sync.SpeciesCatalogUpdatedEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class SpeciesMirrorService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpeciesMirrorService.class);
+
+    @Autowired
+    private SpeciesRepository speciesRepository;
+
+    @Autowired
+    private SpeciesSyncStateRepository syncStateRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SpeciesNameIndex speciesNameIndex;
+
+    private volatile Boolean catalogComplete;
+
+    public boolean isCatalogComplete() {
+        Boolean complete = catalogComplete;
+        if (complete == null) {
+            complete = syncStateRepository.findById(SpeciesSyncState.SPECIES_LIST)
+                    .map(SpeciesSyncState::isCompleted)
+                    .orElse(false);
+            catalogComplete = complete;
+        }
+        return complete;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, SpeciesCatalogUpdatedEvent.class})
+    public void rebuildNameIndex() {
+        List<SpeciesName> names = speciesRepository.findAllNames();
+        speciesNameIndex.rebuild(names);
+        log.info("Species name index rebuilt with {} species", names.size());
+    }
+
+    public List<Species> findFirstPage(int size) {
+        return speciesRepository.findByOrderByIdAsc(PageRequest.of(0, size));
+    }
+
+    public Page<Species> findPage(int page, int size) {
+        return speciesRepository.findAll(PageRequest.of(page - 1, size, Sort.by("id")));
+    }
+
+    public List<Species> findMissingDetails(int limit, int maxAttempts, Duration retryAfter) {
+        return speciesRepository.findMissingDetails(maxAttempts, Instant.now().minus(retryAfter), PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public void recordDetailsFailure(Integer id) {
+        speciesRepository.findById(id).ifPresent(entity -> {
+            entity.setDetailsAttempts(entity.getDetailsAttempts() == null ? 1 : entity.getDetailsAttempts() + 1);
+            entity.setDetailsFailedAt(Instant.now());
+            speciesRepository.save(entity);
+        });
+    }
+
+    public Optional<SinglePlantResponse> findDetails(String id) {
+        Integer speciesId = parseId(id);
+        if (speciesId == null) {
+            return Optional.empty();
+        }
+        return speciesRepository.findById(speciesId)
+                .map(Species::getDetails)
+                .map(this::readDetails);
+    }
+
+    public Optional<String> findDetailsJson(String id) {
+        Integer speciesId = parseId(id);
+        if (speciesId == null) {
+            return Optional.empty();
+        }
+        return speciesRepository.findById(speciesId).map(Species::getDetails);
+    }
+
+    public SpeciesSyncState loadSyncState() {
+        return syncStateRepository.findById(SpeciesSyncState.SPECIES_LIST)
+                .orElseGet(() -> new SpeciesSyncState(SpeciesSyncState.SPECIES_LIST));
+    }
+
+    public void saveSyncState(SpeciesSyncState state) {
+        syncStateRepository.save(state);
+        catalogComplete = state.isCompleted();
+    }
+
+    @Transactional
+    public void saveSpecies(List<PlantsResponse.Plant> plants) {
+        Map<Integer, Species> existing = speciesRepository.findAllById(plants.stream().map(PlantsResponse.Plant::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Species::getId, Function.identity()));
+
+        Instant now = Instant.now();
+        List<Species> species = plants.stream().map(plant -> {
+            Species entity = existing.getOrDefault(plant.getId(), new Species());
+            entity.setId(plant.getId());
+            entity.setCommonName(plant.getCommonName());
+            String scientificName = plant.getScientificName() == null || plant.getScientificName().isEmpty()
+                    ? null : String.join(", ", plant.getScientificName());
+            entity.setScientificName(scientificName);
+            entity.setOriginalUrl(plant.getDefaultImage() == null ? null : plant.getDefaultImage().getOriginalUrl());
+            entity.setUpdatedAt(now);
+            return entity;
+        }).toList();
+
+        speciesRepository.saveAll(species);
+    }
+
+    @Transactional
+    public void saveDetails(SinglePlantResponse details) {
+        try {
+            Species entity = speciesRepository.findById(details.getId()).orElseGet(Species::new);
+            entity.setId(details.getId());
+            if (entity.getCommonName() == null) {
+                entity.setCommonName(details.getCommonName());
+            }
+            if (entity.getOriginalUrl() == null && details.getDefaultImage() != null) {
+                entity.setOriginalUrl(details.getDefaultImage().getOriginalUrl());
+            }
+            entity.setDetails(objectMapper.writeValueAsString(details));
+            entity.setDetailsFetchedAt(Instant.now());
+            entity.setUpdatedAt(Instant.now());
+            speciesRepository.save(entity);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize species details: {}", e.getMessage());
+        }
+    }
+
+    private SinglePlantResponse readDetails(String details) {
+        try {
+            return objectMapper.readValue(details, SinglePlantResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not read mirrored species details: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Integer parseId(String id) {
+        try {
+            return Integer.valueOf(id.trim());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
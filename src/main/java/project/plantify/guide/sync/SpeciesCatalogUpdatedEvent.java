@@ -0,0 +1,4 @@
+package project.plantify.guide.sync;
+
+public record SpeciesCatalogUpdatedEvent(int pagesSynced) {
+}
@@ -0,0 +1,35 @@
+package project.plantify.guide.sync;
+
+import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "plant.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class SpeciesSyncConfig {
+
+    @Bean
+    public JobDetail speciesSyncJobDetail() {
+        return JobBuilder.newJob(SpeciesSyncJob.class)
+                .withIdentity("speciesSync")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger speciesSyncTrigger(JobDetail speciesSyncJobDetail,
+                                      @Value("${plant.sync.interval:1h}") Duration interval) {
+        return TriggerBuilder.newTrigger()
+                .forJob(speciesSyncJobDetail)
+                .withIdentity("speciesSyncTrigger")
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMilliseconds(interval.toMillis())
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package project.plantify.guide.sync;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+@DisallowConcurrentExecution
+public class SpeciesSyncJob extends QuartzJobBean {
+
+    @Autowired
+    private SpeciesSyncService speciesSyncService;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        speciesSyncService.sync();
+    }
+}
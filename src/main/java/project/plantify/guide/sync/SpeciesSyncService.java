@@ -0,0 +1,97 @@
+package project.plantify.guide.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import project.plantify.guide.models.Species;
+import project.plantify.guide.models.SpeciesSyncState;
+import project.plantify.guide.playloads.response.PlantsResponse;
+import project.plantify.guide.services.GuideService;
+import project.plantify.guide.services.SpeciesMirrorService;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Service
+public class SpeciesSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpeciesSyncService.class);
+
+    @Autowired
+    private GuideService guideService;
+
+    @Autowired
+    private SpeciesMirrorService speciesMirrorService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${plant.sync.request-budget:20}")
+    private int requestBudget;
+
+    @Value("${plant.sync.full-refresh-interval:7d}")
+    private Duration fullRefreshInterval;
+
+    @Value("${plant.sync.details-max-attempts:3}")
+    private int detailsMaxAttempts;
+
+    @Value("${plant.sync.details-retry-after:7d}")
+    private Duration detailsRetryAfter;
+
+    public void sync() {
+        SpeciesSyncState state = speciesMirrorService.loadSyncState();
+        state.setLastRunAt(Instant.now());
+        int budget = requestBudget;
+        int pagesSynced = 0;
+
+        try {
+            boolean refreshDue = state.getLastCompletedAt() == null
+                    || state.getLastCompletedAt().plus(fullRefreshInterval).isBefore(Instant.now());
+            boolean listPassPending = !state.isCompleted() || state.getNextPage() > 1 || refreshDue;
+
+            while (listPassPending && budget > 0) {
+                PlantsResponse page = guideService.fetchSpeciesPage(state.getNextPage());
+                budget--;
+                speciesMirrorService.saveSpecies(page.getData());
+                pagesSynced++;
+                state.setLastPage(page.getLastPage());
+
+                if (state.getNextPage() >= page.getLastPage()) {
+                    state.setCompleted(true);
+                    state.setLastCompletedAt(Instant.now());
+                    state.setNextPage(1);
+                    listPassPending = false;
+                } else {
+                    state.setNextPage(state.getNextPage() + 1);
+                }
+                speciesMirrorService.saveSyncState(state);
+            }
+
+            if (budget > 0) {
+                for (Species species : speciesMirrorService.findMissingDetails(budget, detailsMaxAttempts, detailsRetryAfter)) {
+                    syncDetails(species);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Species sync stopped", e);
+        } finally {
+            speciesMirrorService.saveSyncState(state);
+            if (pagesSynced > 0) {
+                eventPublisher.publishEvent(new SpeciesCatalogUpdatedEvent(pagesSynced));
+            }
+        }
+    }
+
+    // One species that always fails must not hold up the others, so failures are counted per species.
+    private void syncDetails(Species species) {
+        try {
+            speciesMirrorService.saveDetails(guideService.fetchSpeciesDetails(String.valueOf(species.getId())));
+        } catch (RuntimeException e) {
+            log.warn("Species details sync failed for {}", species.getId(), e);
+            speciesMirrorService.recordDetailsFailure(species.getId());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package project.plantify.security;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -19,6 +20,19 @@ public class SecurityConfig {
         this.supabaseJwtAuthFilter = supabaseJwtAuthFilter;
     }
 
+    // Guide responses are public and carry their own Cache-Control/ETag, so the default
+    // no-store headers are not written for them.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain guideSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/api/plantify/guide/**")
+                .csrf(csrf -> csrf.disable()).cors(Customizer.withDefaults())
+                .headers(headers -> headers.cacheControl(cacheControl -> cacheControl.disable()))
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .addFilterBefore(supabaseJwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable()).cors(Customizer.withDefaults())
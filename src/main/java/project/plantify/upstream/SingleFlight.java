@@ -0,0 +1,54 @@
+package project.plantify.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Concurrent callers asking for the same key share one in-flight upstream call and its result or error.
+// The shared call is not cancelled when one of the callers goes away, and it runs with the
+// Reactor context of the caller that started it.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("plantify.upstream.single-flight.calls")
+                .tag("name", name)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("plantify.upstream.single-flight.calls")
+                .tag("name", name)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("plantify.upstream.single-flight.in-flight", inFlight, ConcurrentHashMap::size)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.deferContextual(context -> {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            executed.increment();
+            created.whenComplete((value, error) -> inFlight.remove(key, created));
+            try {
+                call.get().contextWrite(context).subscribe(created::complete, created::completeExceptionally, () -> created.complete(null));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+            return Mono.fromFuture(created, true);
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package project.plantify.upstream;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Holds up to capacity tokens and refills them continuously, capacity per period.
+class TokenBucket {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(long capacity, Duration period) {
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) period.toNanos();
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    // Takes a token only if at least reserve tokens remain afterwards.
+    boolean tryAcquire(double reserve) {
+        lock.lock();
+        try {
+            refill();
+            if (tokens - 1 < reserve) {
+                return false;
+            }
+            tokens--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            tokens = Math.min(capacity, tokens + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Duration timeUntilAvailable() {
+        lock.lock();
+        try {
+            refill();
+            return tokens >= 1 ? Duration.ZERO : Duration.ofNanos((long) Math.ceil((1 - tokens) / tokensPerNano));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double remaining() {
+        lock.lock();
+        try {
+            refill();
+            return Math.floor(tokens);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double capacity() {
+        return capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,115 @@
+package project.plantify.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Request quota of one upstream API key, enforced per minute and per day. Interactive calls may
+// use the whole quota and wait up to maxWait for the per-minute bucket to refill. Background calls
+// (sync, cache refreshes) leave backgroundReserve of each bucket to interactive traffic and are
+// shed straight away instead of queueing behind users.
+public class UpstreamBudget {
+
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    private static final String PRIORITY_KEY = UpstreamBudget.class.getName() + ".priority";
+
+    private final String name;
+    private final TokenBucket perMinute;
+    private final TokenBucket perDay;
+    private final double backgroundReserve;
+    private final Duration maxWait;
+    private final Map<Priority, Counter> acquired = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> delayed = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    public UpstreamBudget(String name, long requestsPerMinute, long requestsPerDay, double backgroundReserve,
+                          Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.perMinute = new TokenBucket(requestsPerMinute, Duration.ofMinutes(1));
+        this.perDay = new TokenBucket(requestsPerDay, Duration.ofDays(1));
+        this.backgroundReserve = backgroundReserve;
+        this.maxWait = maxWait;
+
+        for (Priority priority : Priority.values()) {
+            acquired.put(priority, counter(meterRegistry, priority, "acquired"));
+            delayed.put(priority, counter(meterRegistry, priority, "delayed"));
+            rejected.put(priority, counter(meterRegistry, priority, "rejected"));
+        }
+        Gauge.builder("plantify.upstream.budget.remaining", perMinute, TokenBucket::remaining)
+                .tag("upstream", name)
+                .tag("window", "minute")
+                .register(meterRegistry);
+        Gauge.builder("plantify.upstream.budget.remaining", perDay, TokenBucket::remaining)
+                .tag("upstream", name)
+                .tag("window", "day")
+                .register(meterRegistry);
+    }
+
+    public static Context withPriority(Priority priority) {
+        return Context.of(PRIORITY_KEY, priority);
+    }
+
+    public static Context background() {
+        return withPriority(Priority.BACKGROUND);
+    }
+
+    // Requests without a priority in their Reactor context count as interactive.
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.deferContextual(context -> acquire(priorityOf(context)))
+                .then(Mono.defer(() -> next.exchange(request)));
+    }
+
+    public Mono<Void> acquire(Priority priority) {
+        return acquire(priority, System.nanoTime() + maxWait.toNanos(), false);
+    }
+
+    private Mono<Void> acquire(Priority priority, long deadline, boolean waited) {
+        return Mono.defer(() -> {
+            double reserve = priority == Priority.BACKGROUND ? backgroundReserve : 0;
+            if (tryAcquire(reserve)) {
+                (waited ? delayed : acquired).get(priority).increment();
+                return Mono.empty();
+            }
+
+            Duration wait = perMinute.timeUntilAvailable();
+            boolean dayExhausted = perDay.remaining() < 1 + reserve * perDay.capacity();
+            if (priority == Priority.BACKGROUND || dayExhausted || System.nanoTime() + wait.toNanos() > deadline) {
+                rejected.get(priority).increment();
+                return Mono.error(new UpstreamBudgetExceededException("Request budget for " + name + " is exhausted"));
+            }
+            return Mono.delay(wait.isZero() ? Duration.ofMillis(1) : wait).then(acquire(priority, deadline, true));
+        });
+    }
+
+    private boolean tryAcquire(double reserve) {
+        if (!perMinute.tryAcquire(reserve * perMinute.capacity())) {
+            return false;
+        }
+        if (!perDay.tryAcquire(reserve * perDay.capacity())) {
+            perMinute.release();
+            return false;
+        }
+        return true;
+    }
+
+    private static Priority priorityOf(ContextView context) {
+        return context.getOrDefault(PRIORITY_KEY, Priority.INTERACTIVE);
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, Priority priority, String result) {
+        return Counter.builder("plantify.upstream.budget.requests")
+                .tag("upstream", name)
+                .tag("priority", priority.name().toLowerCase())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
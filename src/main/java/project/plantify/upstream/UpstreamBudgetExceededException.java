@@ -0,0 +1,7 @@
+package project.plantify.upstream;
+
+public class UpstreamBudgetExceededException extends RuntimeException {
+    public UpstreamBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,74 @@
+package project.plantify.upstream;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// One circuit breaker per upstream and endpoint path, so a failing Perenual endpoint does not
+// cut off the others. 5xx responses, connection errors and slow calls count as failures; while
+// a circuit is open calls fail at once with CallNotPermittedException. Each upstream has its own
+// thresholds; an upstream without a config gets the resilience4j defaults.
+public class UpstreamCircuitBreakers {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamCircuitBreakers.class);
+
+    private final CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+    private final Map<String, CircuitBreakerConfig> configs;
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamCircuitBreakers(Map<String, CircuitBreakerConfig> configs, MeterRegistry meterRegistry) {
+        this.configs = Map.copyOf(configs);
+        this.meterRegistry = meterRegistry;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        registry.getEventPublisher().onEntryAdded(event -> countTransitions(event.getAddedEntry()));
+    }
+
+    public CircuitBreaker get(String upstream, String path) {
+        return registry.circuitBreaker(upstream + ":" + path.replaceAll("/\\d+(?=/|$)", "/{id}"),
+                configs.getOrDefault(upstream, registry.getDefaultConfig()));
+    }
+
+    // Lets callers skip expensive preparation while the circuit is open. Asking for a permission is
+    // what moves an open circuit to half-open once its wait is over, so it is taken and handed back.
+    public void checkPermitted(String upstream, String path) {
+        CircuitBreaker circuitBreaker = get(upstream, path);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+        }
+        circuitBreaker.releasePermission();
+    }
+
+    public ExchangeFilterFunction filter(String upstream) {
+        return (request, next) -> {
+            CircuitBreaker circuitBreaker = get(upstream, request.url().getPath());
+            return Mono.defer(() -> next.exchange(request))
+                    .flatMap(response -> response.statusCode().is5xxServerError()
+                            ? response.createException().flatMap(Mono::error)
+                            : Mono.just(response))
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+        };
+    }
+
+    private void countTransitions(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Circuit breaker {}: {}", circuitBreaker.getName(), event.getStateTransition());
+            Counter.builder("plantify.upstream.circuit-breaker.transitions")
+                    .tag("name", circuitBreaker.getName())
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package project.plantify.upstream;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Every upstream gets its own connection pool, so slow multipart uploads to PlantNet cannot take
+// the connections the Guide calls need. Settings come from plant.upstream.<name>.pool.*; pool
+// metrics (active, idle and pending connections, acquire time) are published as
+// reactor.netty.connection.provider.* tagged with the pool name.
+@Component
+public class UpstreamHttpClients {
+
+    private final Environment environment;
+    private final List<ConnectionProvider> providers = new CopyOnWriteArrayList<>();
+
+    public UpstreamHttpClients(Environment environment) {
+        this.environment = environment;
+    }
+
+    public HttpClient create(String name) {
+        String prefix = "plant.upstream." + name + ".pool.";
+        int maxConnections = environment.getProperty(prefix + "max-connections", Integer.class, 100);
+        // A bounded wait queue: a burst past the pool fails fast instead of piling up behind the response timeout.
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(environment.getProperty(prefix + "pending-acquire-max-count", Integer.class, maxConnections))
+                .pendingAcquireTimeout(duration(prefix + "pending-acquire-timeout", Duration.ofSeconds(10)))
+                .maxIdleTime(duration(prefix + "max-idle-time", Duration.ofSeconds(30)))
+                .maxLifeTime(duration(prefix + "max-life-time", Duration.ofMinutes(5)))
+                .evictInBackground(duration(prefix + "evict-in-background", Duration.ofSeconds(30)))
+                .metrics(true)
+                .build();
+        providers.add(provider);
+
+        boolean keepAlive = environment.getProperty(prefix + "keep-alive", Boolean.class, true);
+        long readTimeout = duration(prefix + "read-timeout", Duration.ofSeconds(10)).toMillis();
+        return HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) duration(prefix + "connect-timeout", Duration.ofSeconds(3)).toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, keepAlive)
+                .keepAlive(keepAlive)
+                .responseTimeout(duration(prefix + "response-timeout", Duration.ofSeconds(10)))
+                .doOnRequest((request, connection) -> connection.addHandlerLast(new ReadTimeoutHandler(readTimeout, TimeUnit.MILLISECONDS)));
+    }
+
+    @PreDestroy
+    void dispose() {
+        providers.forEach(ConnectionProvider::dispose);
+    }
+
+    private Duration duration(String property, Duration defaultValue) {
+        return environment.getProperty(property, Duration.class, defaultValue);
+    }
+}
@@ -0,0 +1,257 @@
+package project.plantify.AI.controllers;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.jayway.jsonpath.JsonPath;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+import project.plantify.AI.services.UploadSpool;
+import project.plantify.guide.services.TestSecurityConfig;
+import project.plantify.upstream.UpstreamCircuitBreakers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.profiles.active=test",
+                "spring.datasource.url=jdbc:h2:mem:testdb",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "supabase.jwt.secret=test_jwt_secret",
+                "plant.api.token=test_api_token",
+                "plant.net.api.key=test_net_api_key",
+                "plant.sync.enabled=false",
+                "plant.net.batch.item-timeout=2s",
+        }
+)
+@AutoConfigureMockMvc
+@Import(TestSecurityConfig.class)
+class IdentificationJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UpstreamCircuitBreakers upstreamCircuitBreakers;
+
+    @Autowired
+    private UploadSpool uploadSpool;
+
+    @RegisterExtension
+    static WireMockExtension plantNet = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("plant.net.api.url", () -> plantNet.baseUrl() + "/v2/identify");
+    }
+
+    @Test
+    void shouldRunIdentificationAsJobAndReportResult() throws Exception {
+        plantNet.stubFor(post(urlPathEqualTo("/v2/identify/all"))
+                .willReturn(aResponse()
+                        .withFixedDelay(200)
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"bestMatch\":\"Monstera deliciosa Liebm.\",\"results\":[]}")));
+
+        MvcResult submitted = mockMvc.perform(multipart("/api/plantify/ai/jobs")
+                        .file(new MockMultipartFile("images", "leaf.jpg", "image/jpeg", new byte[1024]))
+                        .file(new MockMultipartFile("organs", "", "text/plain", "leaf".getBytes(StandardCharsets.UTF_8)))
+                        .file(new MockMultipartFile("lang", "", "text/plain", "en".getBytes(StandardCharsets.UTF_8)))
+                        .file(new MockMultipartFile("nbresults", "", "text/plain", "3".getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").exists())
+                .andExpect(header().string("Location", containsString("/api/plantify/ai/jobs/")))
+                .andReturn();
+        String id = JsonPath.read(submitted.getResponse().getContentAsString(), "$.jobId");
+
+        MvcResult events = mockMvc.perform(get("/api/plantify/ai/jobs/" + id + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(events))
+                .andExpect(content().string(containsString("event:result")))
+                .andExpect(content().string(containsString("Monstera deliciosa Liebm.")));
+
+        mockMvc.perform(get("/api/plantify/ai/jobs/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("DONE")))
+                .andExpect(jsonPath("$.result.bestMatch", is("Monstera deliciosa Liebm.")));
+
+        mockMvc.perform(get("/api/plantify/ai/jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRejectIdentificationWhilePlantNetCircuitIsOpen() throws Exception {
+        CircuitBreaker circuitBreaker = upstreamCircuitBreakers.get("plantnet", "/v2/identify/all");
+        circuitBreaker.transitionToForcedOpenState();
+        try {
+            mockMvc.perform(multipart("/api/plantify/ai/getSpecies")
+                            .file(new MockMultipartFile("images", "leaf.jpg", "image/jpeg", new byte[1024]))
+                            .file(new MockMultipartFile("organs", "", "text/plain", "leaf".getBytes(StandardCharsets.UTF_8)))
+                            .file(new MockMultipartFile("lang", "", "text/plain", "en".getBytes(StandardCharsets.UTF_8)))
+                            .file(new MockMultipartFile("nbresults", "", "text/plain", "3".getBytes(StandardCharsets.UTF_8))))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            circuitBreaker.transitionToClosedState();
+        }
+
+        plantNet.verify(0, postRequestedFor(urlPathEqualTo("/v2/identify/all")));
+    }
+
+    @Test
+    void shouldStreamBatchResultsPerObservation() throws Exception {
+        plantNet.stubFor(post(urlPathEqualTo("/v2/identify/all"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"bestMatch\":\"Ficus lyrata Warb.\",\"results\":[]}")));
+        MockMultipartFile observations = new MockMultipartFile("observations", "", MediaType.APPLICATION_JSON_VALUE,
+                "[{\"id\":\"a\",\"organs\":\"leaf\"},{\"id\":\"b\",\"organs\":\"flower\"}]".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile lang = new MockMultipartFile("lang", "", "text/plain", "en".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile nbresults = new MockMultipartFile("nbresults", "", "text/plain", "3".getBytes(StandardCharsets.UTF_8));
+
+        MvcResult batch = mockMvc.perform(multipart("/api/plantify/ai/batch")
+                        .file(observations).file(lang).file(nbresults)
+                        .file(new MockMultipartFile("images.a", "a.jpg", "image/jpeg", new byte[]{1, 2, 3}))
+                        .file(new MockMultipartFile("images.b", "b1.jpg", "image/jpeg", new byte[]{4, 5, 6}))
+                        .file(new MockMultipartFile("images.b", "b2.jpg", "image/jpeg", new byte[]{7, 8, 9})))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(batch))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals(Set.of("a", "b"), lines.stream().map(line -> (String) JsonPath.read(line, "$.observationId")).collect(Collectors.toSet()));
+        lines.forEach(line -> assertEquals("Ficus lyrata Warb.", JsonPath.read(line, "$.result.bestMatch")));
+
+        mockMvc.perform(multipart("/api/plantify/ai/batch")
+                        .file(observations).file(lang).file(nbresults)
+                        .file(new MockMultipartFile("images.a", "a.jpg", "image/jpeg", new byte[]{1, 2, 3})))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(multipart("/api/plantify/ai/batch")
+                        .file(new MockMultipartFile("observations", "", MediaType.APPLICATION_JSON_VALUE,
+                                "[{\"id\":\"a\"}]".getBytes(StandardCharsets.UTF_8)))
+                        .file(lang).file(nbresults)
+                        .file(new MockMultipartFile("images.a", "a.jpg", "image/jpeg", new byte[]{1, 2, 3})))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldFreeTheWorkerOfATimedOutBatchItem() throws Exception {
+        plantNet.stubFor(post(urlPathEqualTo("/v2/identify/all"))
+                .willReturn(aResponse()
+                        .withFixedDelay(5_000)
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"bestMatch\":\"Ficus lyrata Warb.\",\"results\":[]}")));
+
+        MvcResult batch = mockMvc.perform(multipart("/api/plantify/ai/batch")
+                        .file(new MockMultipartFile("observations", "", MediaType.APPLICATION_JSON_VALUE,
+                                "[{\"id\":\"slow\",\"organs\":\"leaf\"}]".getBytes(StandardCharsets.UTF_8)))
+                        .file(new MockMultipartFile("lang", "", "text/plain", "en".getBytes(StandardCharsets.UTF_8)))
+                        .file(new MockMultipartFile("nbresults", "", "text/plain", "3".getBytes(StandardCharsets.UTF_8)))
+                        .file(new MockMultipartFile("images.slow", "slow.jpg", "image/jpeg", new byte[]{10, 11, 12})))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        long start = System.nanoTime();
+        mockMvc.perform(asyncDispatch(batch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("TIMEOUT")));
+
+        Gauge active = meterRegistry.get("executor.active").tag("name", "ai.identification-batch").gauge();
+        while (active.value() > 0 && System.nanoTime() - start < 2_000_000_000L) {
+            Thread.sleep(20);
+        }
+        assertEquals(0.0, active.value());
+
+        // The PlantNet call outlives the timed-out item, and the spooled image with it.
+        assertEquals(1, spooledUploads());
+        while (spooledUploads() > 0 && System.nanoTime() - start < 10_000_000_000L) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, spooledUploads());
+    }
+
+    @Test
+    void shouldStartItemTimeoutWhenAWorkerPicksTheItemUp() throws Exception {
+        plantNet.stubFor(post(urlPathEqualTo("/v2/identify/all"))
+                .willReturn(aResponse()
+                        .withFixedDelay(1_500)
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"bestMatch\":\"Ficus lyrata Warb.\",\"results\":[]}")));
+
+        // Three batches of four items share the eight batch workers, so four items wait for a free
+        // worker longer than the 2s item timeout minus the 1.5s PlantNet delay.
+        List<MvcResult> batches = new ArrayList<>();
+        for (int b = 0; b < 3; b++) {
+            MockMultipartHttpServletRequestBuilder request = multipart("/api/plantify/ai/batch");
+            StringBuilder observations = new StringBuilder("[");
+            for (int i = 0; i < 4; i++) {
+                String id = "q" + b + i;
+                observations.append(i > 0 ? "," : "").append("{\"id\":\"").append(id).append("\",\"organs\":\"leaf\"}");
+                request.file(new MockMultipartFile("images." + id, id + ".jpg", "image/jpeg", new byte[]{20, (byte) b, (byte) i}));
+            }
+            batches.add(mockMvc.perform(request
+                            .file(new MockMultipartFile("observations", "", MediaType.APPLICATION_JSON_VALUE,
+                                    (observations + "]").getBytes(StandardCharsets.UTF_8)))
+                            .file(new MockMultipartFile("lang", "", "text/plain", "en".getBytes(StandardCharsets.UTF_8)))
+                            .file(new MockMultipartFile("nbresults", "", "text/plain", "3".getBytes(StandardCharsets.UTF_8))))
+                    .andExpect(request().asyncStarted())
+                    .andReturn());
+        }
+
+        for (MvcResult batch : batches) {
+            List<String> statuses = mockMvc.perform(asyncDispatch(batch))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString().lines()
+                    .map(line -> JsonPath.<String>read(line, "$.status"))
+                    .toList();
+            assertEquals(List.of("DONE", "DONE", "DONE", "DONE"), statuses);
+        }
+    }
+
+    private long spooledUploads() throws IOException {
+        Path directory = (Path) ReflectionTestUtils.getField(uploadSpool, "directory");
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".upload")).count();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package project.plantify.AI.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import project.plantify.AI.payloads.response.PhotoAnalysisResponse;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentificationCacheTest {
+
+    private final IdentificationCache cache = new IdentificationCache(new SimpleMeterRegistry(), 100, Duration.ofHours(1), 6);
+
+    @Test
+    void shouldReuseResultsForExactAndNearDuplicateUploads() {
+        BufferedImage leaf = leaf(1280, 960);
+        long original = ImagePreprocessor.differenceHash(leaf);
+        long resized = ImagePreprocessor.differenceHash(scale(leaf, 800, 600));
+        long other = ImagePreprocessor.differenceHash(flip(leaf));
+        assertTrue(Long.bitCount(original ^ resized) <= 6);
+        assertTrue(Long.bitCount(original ^ other) > 6);
+
+        PhotoAnalysisResponse response = new PhotoAnalysisResponse();
+        response.setBestMatch("Monstera deliciosa Liebm.");
+        String parameters = IdentificationCache.parameters("leaf", "en", "3");
+        String key = IdentificationCache.key(parameters, List.of("abc"));
+        cache.put(key, parameters, new Long[]{original}, response);
+
+        assertEquals(response, cache.findExact(key).orElseThrow());
+        assertTrue(cache.findExact(IdentificationCache.key(parameters, List.of("def"))).isEmpty());
+        assertEquals(response, cache.findSimilar(parameters, new Long[]{resized}).orElseThrow());
+        assertTrue(cache.findSimilar(parameters, new Long[]{other}).isEmpty());
+        assertTrue(cache.findSimilar(IdentificationCache.parameters("flower", "en", "3"), new Long[]{resized}).isEmpty());
+        assertTrue(cache.findSimilar(parameters, new Long[]{null}).isEmpty());
+    }
+
+    private static BufferedImage leaf(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int light = 150 + (int) (60 * Math.sin(x * 7.0 / width) * Math.cos(y * 5.0 / height));
+                image.setRGB(x, y, new Color(light, Math.min(255, light + 30), light - 20).getRGB());
+            }
+        }
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(40, 120, 50));
+        graphics.fillOval(width / 6, height / 5, width / 2, height / 2);
+        graphics.setColor(new Color(90, 60, 30));
+        graphics.fillRect(width * 2 / 3, height / 2, width / 20, height / 2);
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage flip(BufferedImage source) {
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(source, source.getWidth(), 0, -source.getWidth(), source.getHeight(), null);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,162 @@
+package project.plantify.AI.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImagePreprocessorTest {
+
+    private final ImagePreprocessor preprocessor = new ImagePreprocessor(new SimpleMeterRegistry(), 1280, 0.85f, 2, 16);
+
+    @TempDir
+    Path spool;
+
+    @Test
+    void shouldRotateByExifOrientationDownscaleAndDropMetadata() throws Exception {
+        // Landscape sensor data tagged "rotate 90° clockwise", as phones store portrait shots;
+        // the left half is red, so after rotation the top half must be red.
+        BufferedImage source = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                source.setRGB(x, y, x < source.getWidth() / 2 ? 0xFF0000 : 0x0000FF);
+            }
+        }
+        byte[] jpeg = withOrientation(jpeg(source, 0.9f), 6);
+
+        ImagePreprocessor.PreparedImage prepared = preprocessor.prepare(List.of(upload("IMG_0001.HEIC.jpeg", jpeg))).get(0);
+
+        byte[] content = prepared.content().getContentAsByteArray();
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(content));
+        assertEquals(960, result.getWidth());
+        assertEquals(1280, result.getHeight());
+        assertTrue(isRed(result.getRGB(480, 100)));
+        assertTrue(!isRed(result.getRGB(480, 1180)));
+        assertEquals("IMG_0001.HEIC.jpg", prepared.filename());
+        assertTrue(!new String(content, StandardCharsets.ISO_8859_1).contains("Exif"));
+    }
+
+    @Test
+    void shouldForwardUndecodableUploadsUnchanged() throws Exception {
+        UploadSpool.SpooledUpload upload = upload("leaf.heic", "not an image".getBytes(StandardCharsets.UTF_8));
+
+        ImagePreprocessor.PreparedImage prepared = preprocessor.prepare(List.of(upload)).get(0);
+
+        assertEquals("leaf.heic", prepared.filename());
+        assertEquals(upload.file().toFile(), prepared.content().getFile());
+    }
+
+    // Run with: mvn test -Dtest=ImagePreprocessorTest -Dplantify.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "plantify.benchmark", matches = "true")
+    void benchmarkPhoneSizedPhotos() throws Exception {
+        List<UploadSpool.SpooledUpload> photos = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 4; i++) {
+            photos.add(upload("photo" + i + ".jpg", withOrientation(jpeg(photo(4032, 3024, random), 0.95f), i % 2 == 0 ? 1 : 6)));
+        }
+        for (int i = 0; i < 3; i++) {
+            preprocessor.prepare(photos);
+        }
+
+        int iterations = 10;
+        long original = 0;
+        for (UploadSpool.SpooledUpload photo : photos) {
+            original += Files.size(photo.file());
+        }
+        long prepared = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            prepared = 0;
+            for (ImagePreprocessor.PreparedImage image : preprocessor.prepare(photos)) {
+                prepared += image.content().contentLength();
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000 / iterations;
+
+        System.out.printf("4 photos 4032x3024: %d KB -> %d KB (%.1fx smaller), %d ms per batch%n",
+                original / 1024, prepared / 1024, (double) original / prepared, millis);
+        assertTrue(prepared * 10 < original);
+    }
+
+    private UploadSpool.SpooledUpload upload(String filename, byte[] content) throws Exception {
+        return new UploadSpool.SpooledUpload(Files.write(Files.createTempFile(spool, "upload-", ".jpg"), content), filename);
+    }
+
+    // Smooth gradients with sensor-like noise, which compresses about as badly as a real camera photo.
+    private static BufferedImage photo(int width, int height, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = clamp(60 + x * 120 / width + random.nextInt(24) - 12);
+                int g = clamp(110 + (int) (60 * Math.sin(x / 90.0) * Math.cos(y / 70.0)) + random.nextInt(24) - 12);
+                int b = clamp(40 + y * 80 / height + random.nextInt(24) - 12);
+                image.setRGB(x, y, r << 16 | g << 8 | b);
+            }
+        }
+        return image;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    private static boolean isRed(int rgb) {
+        return (rgb >> 16 & 0xFF) > 200 && (rgb & 0xFF) < 60;
+    }
+
+    private static byte[] jpeg(BufferedImage image, float quality) throws Exception {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Inserts an Exif APP1 segment with a single big-endian orientation entry after the JFIF APP0 segment.
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer exif = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4);
+        exif.put("Exif\0\0".getBytes(StandardCharsets.ISO_8859_1));
+        exif.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        exif.putShort((short) 1);
+        exif.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        exif.putInt(0);
+
+        int offset = 2;
+        if ((jpeg[2] & 0xFF) == 0xFF && (jpeg[3] & 0xFF) == 0xE0) {
+            offset += 2 + ((jpeg[4] & 0xFF) << 8 | jpeg[5] & 0xFF);
+        }
+        ByteBuffer result = ByteBuffer.allocate(jpeg.length + 4 + exif.capacity());
+        result.put(jpeg, 0, offset);
+        result.put((byte) 0xFF).put((byte) 0xE1).putShort((short) (exif.capacity() + 2));
+        result.put(exif.array());
+        result.put(jpeg, offset, jpeg.length - offset);
+        return result.array();
+    }
+}
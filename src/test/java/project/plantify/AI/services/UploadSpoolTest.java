@@ -0,0 +1,60 @@
+package project.plantify.AI.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.support.StandardMultipartHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class UploadSpoolTest {
+
+    // Behaves like a container part above the file-size threshold: write() moves its temp file.
+    private static final class DiskPart extends MockPart {
+        private final Path stored;
+
+        private DiskPart(String name, String filename, Path stored) throws IOException {
+            super(name, filename, Files.readAllBytes(stored));
+            this.stored = stored;
+        }
+
+        @Override
+        public void write(String fileName) throws IOException {
+            Files.move(stored, Path.of(fileName), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Test
+    void shouldMoveContainerTempFileIntoTheSpool(@TempDir Path container, @TempDir Path spoolDir) throws Exception {
+        byte[] content = new byte[512 * 1024];
+        content[7] = 42;
+        Path stored = Files.write(container.resolve("upload_1.tmp"), content);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/plantify/ai/getSpecies");
+        request.setContentType("multipart/form-data; boundary=spool");
+        request.addPart(new DiskPart("images", "leaf.jpg", stored));
+        StandardMultipartHttpServletRequest multipart = new StandardMultipartHttpServletRequest(request);
+
+        UploadSpool uploadSpool = new UploadSpool();
+        ReflectionTestUtils.setField(uploadSpool, "directory", spoolDir);
+        List<UploadSpool.SpooledUpload> spooled = uploadSpool.spool(multipart.getFiles("images"));
+
+        assertEquals(1, spooled.size());
+        assertEquals("leaf.jpg", spooled.get(0).filename());
+        assertFalse(Files.exists(stored));
+        assertArrayEquals(content, Files.readAllBytes(spooled.get(0).file()));
+
+        spooled.get(0).close();
+        assertFalse(Files.exists(spooled.get(0).file()));
+    }
+}
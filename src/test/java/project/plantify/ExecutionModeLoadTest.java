@@ -0,0 +1,129 @@
+package project.plantify;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compares blocking request handling on platform and virtual threads against a slow PlantNet stub.
+// Run with: mvn test -Dtest=ExecutionModeLoadTest -Dplantify.loadtest=true [-Dplantify.loadtest.requests=2000]
+@EnabledIfSystemProperty(named = "plantify.loadtest", matches = "true")
+class ExecutionModeLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("plantify.loadtest.requests", 1000);
+    private static final int UPSTREAM_DELAY_MS = Integer.getInteger("plantify.loadtest.delay", 500);
+    private static final String BOUNDARY = "plantify-load-test";
+
+    private static WireMockServer plantNet;
+
+    @BeforeAll
+    static void startUpstream() {
+        plantNet = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(REQUESTS + 50).disableRequestJournal());
+        plantNet.start();
+        plantNet.stubFor(post(urlPathEqualTo("/v2/identify/all"))
+                .willReturn(aResponse()
+                        .withFixedDelay(UPSTREAM_DELAY_MS)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"bestMatch\":\"Monstera deliciosa Liebm.\",\"results\":[]}")));
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        plantNet.stop();
+    }
+
+    @Test
+    void virtualThreadsHandleMoreConcurrentBlockingRequests() throws Exception {
+        double platform = run(false);
+        double virtual = run(true);
+
+        System.out.printf("platform threads: %.1f req/s, virtual threads: %.1f req/s (%d requests, %d ms upstream)%n",
+                platform, virtual, REQUESTS, UPSTREAM_DELAY_MS);
+        assertTrue(virtual > platform, "virtual threads should outperform the platform thread pool");
+    }
+
+    private double run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PlantifyApplication.class).run(
+                "--server.port=0",
+                "--server.tomcat.accept-count=" + REQUESTS,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--supabase.jwt.secret=test_jwt_secret",
+                "--plant.api.token=test_api_token",
+                "--plant.net.api.key=test_net_api_key",
+                "--plant.net.api.url=" + plantNet.baseUrl() + "/v2/identify",
+                "--plant.sync.enabled=false",
+                "--plant.upstream.plantnet.pool.max-connections=" + (REQUESTS + 50))) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            // Every request uploads different bytes, so none of them is answered by the identification
+            // cache or joins another request's PlantNet call.
+            Random random = new Random(42);
+
+            try (HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build()) {
+                List<HttpRequest> requests = new ArrayList<>();
+                for (int i = 0; i < REQUESTS; i++) {
+                    requests.add(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/plantify/ai/getSpecies"))
+                            .timeout(Duration.ofMinutes(2))
+                            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody(random)))
+                            .build());
+                }
+
+                long start = System.nanoTime();
+                List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+                for (HttpRequest request : requests) {
+                    responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+                }
+                for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                    assertEquals(200, response.get().statusCode());
+                }
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                return REQUESTS / seconds;
+            }
+        }
+    }
+
+    private static byte[] multipartBody(Random random) throws Exception {
+        byte[] image = new byte[64 * 1024];
+        random.nextBytes(image);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writePart(out, "Content-Disposition: form-data; name=\"images\"; filename=\"leaf.jpg\"\r\nContent-Type: image/jpeg", image);
+        writePart(out, "Content-Disposition: form-data; name=\"organs\"", "leaf".getBytes(StandardCharsets.UTF_8));
+        writePart(out, "Content-Disposition: form-data; name=\"lang\"", "en".getBytes(StandardCharsets.UTF_8));
+        writePart(out, "Content-Disposition: form-data; name=\"nbresults\"", "1".getBytes(StandardCharsets.UTF_8));
+        out.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static void writePart(ByteArrayOutputStream out, String headers, byte[] content) throws Exception {
+        out.write(("--" + BOUNDARY + "\r\n" + headers + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(content);
+        out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+}
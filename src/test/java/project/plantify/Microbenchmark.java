@@ -0,0 +1,36 @@
+package project.plantify;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+// Allocation and time per call on the current thread, for the benchmarks behind -Dplantify.benchmark=true.
+public final class Microbenchmark {
+
+    // Keeps the JIT from dropping calls whose result is never read.
+    private static volatile Object sink;
+
+    public record Result(long bytesPerOp, long nanosPerOp) {
+        @Override
+        public String toString() {
+            return String.format("%d B/op %d ns/op", bytesPerOp, nanosPerOp);
+        }
+    }
+
+    private Microbenchmark() {
+    }
+
+    public static Result measure(int warmup, int iterations, Callable<?> call) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < warmup; i++) {
+            sink = call.call();
+        }
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = call.call();
+        }
+        long nanos = System.nanoTime() - start;
+        return new Result((threads.getThreadAllocatedBytes(thread) - bytes) / iterations, nanos / iterations);
+    }
+}
@@ -0,0 +1,49 @@
+package project.plantify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.*;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A virtual thread blocking inside a synchronized section pins its carrier thread, so our code
+// uses java.util.concurrent locks instead. This keeps monitors from creeping back in.
+class VirtualThreadPinningTest {
+
+    @Test
+    void applicationCodeDoesNotUseMonitors() throws Exception {
+        List<String> offenders = new ArrayList<>();
+        Resource[] classes = new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:project/plantify/**/*.class");
+
+        for (Resource resource : classes) {
+            try (InputStream in = resource.getInputStream()) {
+                ClassReader reader = new ClassReader(in);
+                reader.accept(new ClassVisitor(Opcodes.ASM9) {
+                    @Override
+                    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                        String method = reader.getClassName() + "#" + name;
+                        if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                            offenders.add(method + " (synchronized method)");
+                        }
+                        return new MethodVisitor(Opcodes.ASM9) {
+                            @Override
+                            public void visitInsn(int opcode) {
+                                if (opcode == Opcodes.MONITORENTER) {
+                                    offenders.add(method + " (synchronized block)");
+                                }
+                            }
+                        };
+                    }
+                }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            }
+        }
+
+        assertTrue(offenders.isEmpty(), "Monitors pin virtual threads, use ReentrantLock instead: " + offenders);
+    }
+}
@@ -0,0 +1,30 @@
+package project.plantify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import project.plantify.upstream.UpstreamHttpClients;
+import reactor.netty.resources.ConnectionProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WebClientConfigTest {
+
+    @Test
+    void shouldGiveEachUpstreamItsOwnPool() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("plant.upstream.perenual.pool.max-connections", "20")
+                .withProperty("plant.upstream.plantnet.pool.max-connections", "30");
+        UpstreamHttpClients clients = new UpstreamHttpClients(environment);
+        WebClientConfig config = new WebClientConfig();
+
+        ConnectionProvider perenual = config.perenualHttpClient(clients).configuration().connectionProvider();
+        ConnectionProvider plantNet = config.plantNetHttpClient(clients).configuration().connectionProvider();
+
+        assertEquals("perenual", perenual.name());
+        assertEquals(20, perenual.maxConnections());
+        assertEquals("plantnet", plantNet.name());
+        assertEquals(30, plantNet.maxConnections());
+        perenual.dispose();
+        plantNet.dispose();
+    }
+}
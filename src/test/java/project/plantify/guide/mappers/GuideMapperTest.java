@@ -0,0 +1,169 @@
+package project.plantify.guide.mappers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import project.plantify.Microbenchmark;
+import project.plantify.guide.playloads.response.SinglePlantResponse;
+import project.plantify.guide.playloads.response.SinglePlantResponseToFrontend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GuideMapperTest {
+
+    private final GuideMapper guideMapper = new GuideMapperImpl();
+
+    @Test
+    void shouldMapSinglePlantWithoutListsOrImage() {
+        SinglePlantResponse plant = new SinglePlantResponse();
+        plant.setId(1);
+        plant.setCommonName("Monstera");
+
+        SinglePlantResponseToFrontend frontend = guideMapper.toFrontend(plant);
+
+        assertEquals("Monstera", frontend.getCommonName());
+        assertTrue(frontend.getDimensions().isEmpty());
+        assertTrue(frontend.getPlantAnatomy().isEmpty());
+        assertTrue(frontend.getPruningCount().isEmpty());
+        assertEquals(GuideMapper.DEFAULT_IMAGE_URL, frontend.getOriginalUrl());
+    }
+
+    // Compares the generated mapper with the hand-written stream-based mapping it replaced.
+    // Run with: mvn test -Dtest=GuideMapperTest -Dplantify.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "plantify.benchmark", matches = "true")
+    void generatedMapperIsNotSlowerThanHandWrittenMapping() throws Exception {
+        SinglePlantResponse plant = fullPlant();
+        Microbenchmark.Result handWritten = Microbenchmark.measure(200_000, 1_000_000, () -> handWritten(plant));
+        Microbenchmark.Result generated = Microbenchmark.measure(200_000, 1_000_000, () -> guideMapper.toFrontend(plant));
+
+        System.out.printf("single plant mapping: hand-written %s, generated %s%n", handWritten, generated);
+        assertTrue(generated.bytesPerOp() <= handWritten.bytesPerOp());
+    }
+
+    private static SinglePlantResponse fullPlant() {
+        SinglePlantResponse plant = new SinglePlantResponse();
+        plant.setId(1);
+        plant.setCommonName("European Silver Fir");
+        plant.setFamily("Pinaceae");
+        plant.setType("tree");
+        List<SinglePlantResponse.Dimensions> dimensions = new ArrayList<>();
+        for (String type : new String[]{"Height", "Spread"}) {
+            SinglePlantResponse.Dimensions dimension = new SinglePlantResponse.Dimensions();
+            dimension.setType(type);
+            dimension.setMinValue("60");
+            dimension.setMaxValue("80");
+            dimension.setUnit("feet");
+            dimensions.add(dimension);
+        }
+        plant.setDimensions(dimensions);
+        plant.setCycle("Perennial");
+        plant.setWatering("Frequent");
+        SinglePlantResponse.WateringBenchmark benchmark = new SinglePlantResponse.WateringBenchmark();
+        benchmark.setValue("7-10");
+        benchmark.setUnit("days");
+        plant.setWateringGeneralBenchmark(benchmark);
+        List<SinglePlantResponse.PlantPart> anatomy = new ArrayList<>();
+        for (String part : new String[]{"bark", "leaves", "cones"}) {
+            SinglePlantResponse.PlantPart plantPart = new SinglePlantResponse.PlantPart();
+            plantPart.setPart(part);
+            plantPart.setColor(List.of("brown", "green"));
+            anatomy.add(plantPart);
+        }
+        plant.setPlantAnatomy(anatomy);
+        plant.setSunlight(List.of("full sun", "part shade"));
+        plant.setPruningMonth(List.of("February", "March", "April"));
+        SinglePlantResponse.PruningCount count = new SinglePlantResponse.PruningCount();
+        count.setAmount(1);
+        count.setInterval("yearly");
+        plant.setPruningCount(List.of(count));
+        plant.setPropagation(List.of("Cutting", "Grafting", "Seed"));
+        plant.setSoil(List.of("Loamy", "Sandy"));
+        plant.setDescription("Amazing garden plant that is sure to capture attention.");
+        SinglePlantResponse.Image image = new SinglePlantResponse.Image();
+        image.setOriginalUrl("https://perenual.com/storage/species_image/1/og/1.jpg");
+        plant.setDefaultImage(image);
+        return plant;
+    }
+
+    // The mapping GuideService used before the generated mapper, minus its debug output.
+    private static SinglePlantResponseToFrontend handWritten(SinglePlantResponse plant) {
+        SinglePlantResponseToFrontend plantResponse = new SinglePlantResponseToFrontend();
+        plantResponse.setId(plant.getId());
+        plantResponse.setCommonName(plant.getCommonName());
+        plantResponse.setFamily(plant.getFamily());
+        plantResponse.setType(plant.getType());
+        plantResponse.setDimensions(plant.getDimensions().stream()
+                .map(d -> {
+                    SinglePlantResponseToFrontend.Dimensions fd = new SinglePlantResponseToFrontend.Dimensions();
+                    fd.setType(d.getType());
+                    fd.setMinValue(d.getMinValue());
+                    fd.setMaxValue(d.getMaxValue());
+                    fd.setUnit(d.getUnit());
+                    return fd;
+                })
+                .collect(Collectors.toList()));
+        plantResponse.setCycle(plant.getCycle());
+        plantResponse.setWatering(plant.getWatering());
+        SinglePlantResponseToFrontend.WateringBenchmark wateringBenchmark = new SinglePlantResponseToFrontend.WateringBenchmark();
+        wateringBenchmark.setUnit(plant.getWateringGeneralBenchmark().getUnit());
+        wateringBenchmark.setValue(plant.getWateringGeneralBenchmark().getValue());
+        plantResponse.setWateringGeneralBenchmark(wateringBenchmark);
+        plantResponse.setPlantAnatomy(plant.getPlantAnatomy().stream()
+                .map(pa -> {
+                    SinglePlantResponseToFrontend.PlantPart part = new SinglePlantResponseToFrontend.PlantPart();
+                    part.setPart(pa.getPart());
+                    part.setColor(pa.getColor());
+                    return part;
+                })
+                .collect(Collectors.toList()));
+        plantResponse.setSunlight(plant.getSunlight());
+        plantResponse.setPruningMonth(plant.getPruningMonth());
+        plantResponse.setPruningCount(plant.getPruningCount().stream()
+                .map(pa -> {
+                    SinglePlantResponseToFrontend.PruningCount count = new SinglePlantResponseToFrontend.PruningCount();
+                    count.setAmount(pa.getAmount());
+                    count.setInterval(pa.getInterval());
+                    return count;
+                })
+                .collect(Collectors.toList()));
+        plantResponse.setSeeds(plant.getSeeds());
+        plantResponse.setPropagation(plant.getPropagation());
+        plantResponse.setFlowers(plant.isFlowers());
+        plantResponse.setFloweringSeason(plant.getFloweringSeason());
+        plantResponse.setSoil(plant.getSoil());
+        plantResponse.setCones(plant.getCones());
+        plantResponse.setFruits(plant.getFruits());
+        plantResponse.setEdibleFruit(plant.getEdibleFruit());
+        plantResponse.setFruitingSeason(plant.getFruitingSeason());
+        plantResponse.setHarvestSeason(plant.getHarvestSeason());
+        plantResponse.setHarvestMethod(plant.getHarvestMethod());
+        plantResponse.setLeaf(plant.getLeaf());
+        plantResponse.setEdibleLeaf(plant.getEdibleLeaf());
+        plantResponse.setGrowthRate(plant.getGrowthRate());
+        plantResponse.setMaintenance(plant.getMaintenance());
+        plantResponse.setMedicinal(plant.getMedicinal());
+        plantResponse.setPoisonousToHumans(plant.getPoisonousToHumans());
+        plantResponse.setPoisonousToPets(plant.getPoisonousToPets());
+        plantResponse.setDroughtTolerant(plant.getDroughtTolerant());
+        plantResponse.setSaltTolerant(plant.getSaltTolerant());
+        plantResponse.setThorny(plant.getThorny());
+        plantResponse.setInvasive(plant.getInvasive());
+        plantResponse.setRare(plant.getRare());
+        plantResponse.setTropical(plant.getTropical());
+        plantResponse.setCuisine(plant.getCuisine());
+        plantResponse.setIndoor(plant.getIndoor());
+        plantResponse.setCareLevel(plant.getCareLevel());
+        plantResponse.setDescription(plant.getDescription());
+        if (plant.getDefaultImage() == null || plant.getDefaultImage().getOriginalUrl().contains("upgrade_access.jpg")) {
+            plantResponse.setOriginalUrl(GuideMapper.DEFAULT_IMAGE_URL);
+        } else {
+            plantResponse.setOriginalUrl(plant.getDefaultImage().getOriginalUrl());
+        }
+        return plantResponse;
+    }
+}
@@ -0,0 +1,169 @@
+package project.plantify.guide.passthrough;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import project.plantify.Microbenchmark;
+import project.plantify.guide.mappers.GuideMapper;
+import project.plantify.guide.mappers.GuideMapperImpl;
+import project.plantify.guide.playloads.response.PlantsFAQResponse;
+import project.plantify.guide.playloads.response.SinglePlantResponse;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GuideJsonFiltersTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final GuideMapper guideMapper = new GuideMapperImpl();
+
+    @Test
+    void shouldFilterSinglePlantToTheSameJsonAsTheMapper() throws Exception {
+        String upstream = """
+                {
+                    "id": 183,
+                    "common_name": "Strawberry Tree",
+                    "scientific_name": ["Arbutus unedo"],
+                    "other_name": ["Killarney Strawberry Tree"],
+                    "family": "Ericaceae",
+                    "type": "tree",
+                    "dimensions": [{"type": "Height", "min_value": 15, "max_value": 25, "unit": "feet"}],
+                    "cycle": "Perennial",
+                    "watering": "Average",
+                    "watering_general_benchmark": {"value": "7-10", "unit": "days"},
+                    "plant_anatomy": [{"part": "leaves", "color": ["green"]}, {"part": "flowers", "color": []}],
+                    "sunlight": ["full sun", "part shade"],
+                    "pruning_month": ["March"],
+                    "pruning_count": {"amount": 1, "interval": "yearly"},
+                    "seeds": 0,
+                    "propagation": ["Seed Propagation"],
+                    "hardiness": {"min": "7", "max": "7"},
+                    "flowers": true,
+                    "flowering_season": null,
+                    "soil": [],
+                    "cones": false,
+                    "fruits": true,
+                    "edible_fruit": true,
+                    "leaf": true,
+                    "growth_rate": "Low",
+                    "maintenance": null,
+                    "medicinal": true,
+                    "poisonous_to_pets": false,
+                    "indoor": false,
+                    "care_level": "Medium",
+                    "description": "A small evergreen tree.",
+                    "default_image": {"license": 5, "original_url": "https://perenual.com/upgrade_access.jpg", "thumbnail": "t.jpg"},
+                    "other_images": "Upgrade Plan"
+                }
+                """;
+
+        String expected = objectMapper.writeValueAsString(
+                guideMapper.toFrontend(objectMapper.readValue(upstream, SinglePlantResponse.class)));
+
+        assertEquals(objectMapper.readTree(expected), objectMapper.readTree(filter(upstream, GuideJsonFilters.SINGLE_PLANT::writeObject)));
+    }
+
+    @Test
+    void shouldCoerceNullImageAndNonObjectPruningCountLikeTheMapper() throws Exception {
+        for (String pruningCount : new String[]{"\"Upgrade Plan\"", "null", "[1, {\"amount\": 2, \"interval\": \"yearly\"}, \"x\"]"}) {
+            String upstream = """
+                    {
+                        "id": 184,
+                        "common_name": "Swiss Cheese Plant",
+                        "scientific_name": ["Monstera deliciosa"],
+                        "sunlight": ["part shade"],
+                        "pruning_month": ["April"],
+                        "pruning_count": %s,
+                        "dimensions": [{"type": "Height", "min_value": 1, "max_value": 3, "unit": "feet"}],
+                        "default_image": null,
+                        "other_images": "Upgrade Plan"
+                    }
+                    """.formatted(pruningCount);
+
+            String expected = objectMapper.writeValueAsString(
+                    guideMapper.toFrontend(objectMapper.readValue(upstream, SinglePlantResponse.class)));
+
+            assertEquals(objectMapper.readTree(expected), objectMapper.readTree(filter(upstream, GuideJsonFilters.SINGLE_PLANT::writeObject)),
+                    "pruning_count: " + pruningCount);
+        }
+    }
+
+    @Test
+    void shouldFilterFAQDataToTheSameJsonAsTheMapper() throws Exception {
+        String upstream = """
+                {
+                    "data": [
+                        {"id": 1, "question": "How often?", "answer": "Weekly.", "tags": ["water"], "default_image": null},
+                        {"id": 2, "question": "Where?", "answer": "In sun."}
+                    ],
+                    "to": 2, "per_page": 30, "current_page": 1, "total": 2
+                }
+                """;
+
+        String expected = objectMapper.writeValueAsString(
+                guideMapper.toFAQ(objectMapper.readValue(upstream, PlantsFAQResponse.class).getData()));
+
+        assertEquals(objectMapper.readTree(expected), objectMapper.readTree(filter(upstream,
+                (p, g) -> GuideJsonFilters.FAQ.writeArrayField(p, g, "data"))));
+    }
+
+    // Run with: mvn test -Dtest=GuideJsonFiltersTest -Dplantify.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "plantify.benchmark", matches = "true")
+    void passThroughUsesLessHeapAndCpuThanTheDtoPath() throws Exception {
+        StringBuilder otherImages = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            otherImages.append(i == 0 ? "" : ",").append("""
+                    {"license": 45, "license_name": "CC BY-SA 3.0", "original_url": "https://perenual.com/og/%1$d.jpg",
+                     "regular_url": "https://perenual.com/regular/%1$d.jpg", "medium_url": "https://perenual.com/medium/%1$d.jpg"}
+                    """.formatted(i));
+        }
+        byte[] upstream = """
+                {"id": 183, "common_name": "Strawberry Tree", "family": "Ericaceae", "type": "tree",
+                 "dimensions": [{"type": "Height", "min_value": 15, "max_value": 25, "unit": "feet"}],
+                 "cycle": "Perennial", "watering": "Average", "watering_general_benchmark": {"value": "7-10", "unit": "days"},
+                 "plant_anatomy": [{"part": "leaves", "color": ["green"]}], "sunlight": ["full sun", "part shade"],
+                 "pruning_month": ["March", "April"], "pruning_count": [{"amount": 1, "interval": "yearly"}],
+                 "propagation": ["Seed Propagation", "Cutting"], "flowers": true, "soil": ["Loamy"], "cones": false,
+                 "description": "%s", "default_image": {"original_url": "https://perenual.com/og/183.jpg"},
+                 "other_images": %s]}
+                """.formatted("A small evergreen tree. ".repeat(40), otherImages).getBytes(StandardCharsets.UTF_8);
+
+        Microbenchmark.Result dto = Microbenchmark.measure(20_000, 50_000, () -> objectMapper.writeValueAsBytes(
+                guideMapper.toFrontend(objectMapper.readValue(upstream, SinglePlantResponse.class))));
+        Microbenchmark.Result passThrough = Microbenchmark.measure(20_000, 50_000, () -> {
+            ByteArrayBuilder out = new ByteArrayBuilder(objectMapper.getFactory()._getBufferRecycler());
+            try (JsonParser p = objectMapper.createParser(upstream); JsonGenerator g = objectMapper.createGenerator(out)) {
+                p.nextToken();
+                GuideJsonFilters.SINGLE_PLANT.writeObject(p, g);
+            }
+            return out.toByteArray();
+        });
+
+        System.out.printf("single plant (%d KB): dto %d B/op %d us/op, pass-through %d B/op %d us/op%n",
+                upstream.length / 1024, dto.bytesPerOp(), dto.nanosPerOp() / 1000,
+                passThrough.bytesPerOp(), passThrough.nanosPerOp() / 1000);
+        assertTrue(passThrough.bytesPerOp() < dto.bytesPerOp());
+    }
+
+    private interface Writer {
+        void write(JsonParser p, JsonGenerator g) throws Exception;
+    }
+
+    private String filter(String json, Writer writer) throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonParser p = objectMapper.createParser(json); JsonGenerator g = objectMapper.createGenerator(out)) {
+            p.nextToken();
+            writer.write(p, g);
+        }
+        return out.toString();
+    }
+}
@@ -3,23 +3,50 @@ package project.plantify.guide.services;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import project.plantify.guide.cache.GuideCache;
+import project.plantify.guide.cache.NegativeCache;
+import project.plantify.guide.models.SpeciesSyncState;
+import project.plantify.guide.repository.SpeciesRepository;
+import project.plantify.guide.sync.SpeciesCatalogUpdatedEvent;
+import project.plantify.guide.sync.SpeciesSyncService;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +60,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 "supabase.jwt.secret=test_jwt_secret",
                 "plant.api.token=test_api_token",
                 "plant.net.api.key=test_net_api_key",
+                "plant.sync.enabled=false",
+                "plant.guide.cache.care-guide-list.soft-ttl=1ms",
         }
 )
 @AutoConfigureMockMvc
@@ -42,6 +71,33 @@ class GuideControllerTest {
     @Autowired
     protected MockMvc mockMvc;
 
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private GuideCache guideCache;
+
+    @Autowired
+    private NegativeCache negativeCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SpeciesRepository speciesRepository;
+
+    @Autowired
+    private SpeciesMirrorService speciesMirrorService;
+
+    @Autowired
+    private SpeciesSyncService speciesSyncService;
+
+    @Autowired
+    private GuideService guideService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @RegisterExtension
     static WireMockExtension wireMockServer = WireMockExtension.newInstance()
             .options(wireMockConfig().port(8080))
@@ -54,6 +110,21 @@ class GuideControllerTest {
         registry.add("plant.api.url", wireMockServer::baseUrl);
     }
 
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+
+    @BeforeEach
+    void clearCaches() {
+        guideCache.invalidateAll();
+        negativeCache.invalidateAll();
+        speciesRepository.deleteAll();
+        speciesMirrorService.saveSyncState(new SpeciesSyncState(SpeciesSyncState.SPECIES_LIST));
+        speciesMirrorService.rebuildNameIndex();
+    }
+
     @Test
     void shouldGetFAQ() throws Exception {
         String name = "strawberry";
@@ -116,7 +187,7 @@ class GuideControllerTest {
                                 """)
                 ));
 
-        mockMvc.perform(get("/api/plantify/guide/getPlantsFAQ")
+        perform(get("/api/plantify/guide/getPlantsFAQ")
                         .param("name", name))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
@@ -147,7 +218,7 @@ class GuideControllerTest {
                 ));
 
         String expectedError = "No plants found for the given species.";
-        mockMvc.perform(get("/api/plantify/guide/getPlantsFAQ")
+        perform(get("/api/plantify/guide/getPlantsFAQ")
                         .param("name", name))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message", is(expectedError)));
@@ -225,7 +296,7 @@ class GuideControllerTest {
                                 """)
                 ));
 
-        mockMvc.perform(get("/api/plantify/guide/getPlantsGuideById")
+        perform(get("/api/plantify/guide/getPlantsGuideById")
                         .param("speciesId", "183")
                         .param("speciesName", name))
                 .andDo(print())
@@ -233,6 +304,14 @@ class GuideControllerTest {
                 .andExpect(jsonPath("speciesId", is("183")))
                 .andExpect(jsonPath("commonName", is("Strawberry Tree")))
                 .andExpect(jsonPath("sections").isArray());
+
+        perform(get("/api/plantify/guide/getPlantsGuideById")
+                        .param("speciesId", "181")
+                        .param("speciesName", name))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("speciesId", is("181")));
+
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/species-care-guide-list")));
     }
 
     @Test
@@ -308,7 +387,7 @@ class GuideControllerTest {
                 ));
 
         String expectedError = "Guide not found for species with name " + name;
-        mockMvc.perform(get("/api/plantify/guide/getPlantsGuideById")
+        perform(get("/api/plantify/guide/getPlantsGuideById")
                         .param("speciesId", "1000")
                         .param("speciesName", name))
                 .andDo(print())
@@ -414,7 +493,7 @@ class GuideControllerTest {
                                 """)
                 ));
 
-        mockMvc.perform(get("/api/plantify/guide/getPlantsBySpecies")
+        perform(get("/api/plantify/guide/getPlantsBySpecies")
                         .param("species", species))
                 .andDo(print())
                 .andExpect(status().isOk())
@@ -451,7 +530,7 @@ class GuideControllerTest {
                 ));
 
         String expectedError = "No plants found for the given species.";
-        mockMvc.perform(get("/api/plantify/guide/getPlantsBySpecies")
+        perform(get("/api/plantify/guide/getPlantsBySpecies")
                         .param("species", species))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message", is(expectedError)));
@@ -621,13 +700,16 @@ class GuideControllerTest {
                         """)
                 ));
 
-        mockMvc.perform(get("/api/plantify/guide/getSinglePlant")
+        perform(get("/api/plantify/guide/getSinglePlant")
                         .param("id", plantId)
                 )
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(Integer.valueOf(plantId))))
                 .andExpect(jsonPath("$.commonName", is("Strawberry Tree")));
+
+        // The pass-through path writes the details through to the mirror like the DTO path does.
+        assertTrue(speciesMirrorService.findDetails(plantId).isPresent());
     }
 
     @Test
@@ -731,7 +813,7 @@ class GuideControllerTest {
                         """)
                 ));
 
-        mockMvc.perform(get("/api/plantify/guide/getSinglePlant")
+        perform(get("/api/plantify/guide/getSinglePlant")
                         .param("id", plantId)
                 )
                 .andDo(print())
@@ -748,13 +830,452 @@ class GuideControllerTest {
                 .willReturn(aResponse().withStatus(500)));
 
         String expectedError = "Failed to connect with external API. Please try again later.";
-        this.mockMvc.perform(get("/api/plantify/guide/getSinglePlant")
+        perform(get("/api/plantify/guide/getSinglePlant")
                 .param("id", plantId))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.message", is(expectedError)));
 
     }
 
+    @Test
+    void shouldServeRepeatedSpeciesSearchFromCache() throws Exception {
+        String species = "ficus";
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v2/species-list"))
+                .withQueryParam("key", WireMock.matching(".*"))
+                .withQueryParam("q", WireMock.equalTo(species))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                    "data": [
+                                        {
+                                            "id": 2880,
+                                            "common_name": "weeping fig",
+                                            "scientific_name": ["Ficus benjamina"],
+                                            "default_image": null
+                                        }
+                                    ],
+                                    "per_page": 30,
+                                    "current_page": 1,
+                                    "last_page": 1,
+                                    "total": 1
+                                }
+                                """)
+                ));
+
+        for (String query : new String[]{species, " Ficus "}) {
+            perform(get("/api/plantify/guide/getPlantsBySpecies")
+                            .param("species", query))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id", is("2880")));
+        }
+
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/v2/species-list")));
+    }
+
+    @Test
+    void shouldServeSpeciesSearchFromMirrorAfterSync() throws Exception {
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v2/species-list"))
+                .withQueryParam("key", WireMock.matching(".*"))
+                .withQueryParam("page", WireMock.equalTo("1"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                    "data": [
+                                        {
+                                            "id": 2880,
+                                            "common_name": "weeping fig",
+                                            "scientific_name": ["Ficus benjamina"],
+                                            "default_image": null
+                                        },
+                                        {
+                                            "id": 5257,
+                                            "common_name": "swiss cheese plant",
+                                            "scientific_name": ["Monstera deliciosa"],
+                                            "default_image": null
+                                        }
+                                    ],
+                                    "per_page": 30,
+                                    "current_page": 1,
+                                    "last_page": 1,
+                                    "total": 2
+                                }
+                                """)
+                ));
+
+        speciesSyncService.sync();
+
+        perform(get("/api/plantify/guide/getPlantsBySpecies")
+                        .param("species", "monstera"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is("5257")))
+                .andExpect(jsonPath("$[0].commonName", is("swiss cheese plant")));
+
+        perform(get("/api/plantify/guide/getPlantsBySpecies")
+                        .param("species", "monsterra"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is("5257")));
+
+        perform(get("/api/plantify/guide/getPlantsBySpecies")
+                        .param("species", "Swi")
+                        .param("mode", "autocomplete"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is("5257")));
+
+        WireMock.verify(0, getRequestedFor(urlPathEqualTo("/v2/species-list")).withQueryParam("q", WireMock.matching(".*")));
+    }
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalFAQRequests() throws Exception {
+        String name = "monstera";
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/article-faq-list"))
+                .withQueryParam("key", WireMock.matching(".*"))
+                .withQueryParam("q", WireMock.equalTo(name))
+                .willReturn(aResponse()
+                        .withFixedDelay(500)
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                    "data": [
+                                        {
+                                            "id": 7,
+                                            "question": "How often should I water a monstera?",
+                                            "answer": "Every one to two weeks."
+                                        }
+                                    ]
+                                }
+                                """)
+                ));
+
+        double executed = singleFlightCalls("executed");
+        double coalesced = singleFlightCalls("coalesced");
+
+        // Half the callers take the pass-through endpoint, half the DTO cache; both share one upstream call.
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                requests.add(executor.submit(() -> perform(get("/api/plantify/guide/getPlantsFAQ")
+                                .param("name", name))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[0].id", is(7)))));
+                requests.add(executor.submit(() -> assertEquals(7,
+                        guideService.getPlantsFAQ(name).block().value().get(0).getId())));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
 
+        WireMock.verify(exactly(1), getRequestedFor(urlPathEqualTo("/article-faq-list")));
+        assertEquals(1, singleFlightCalls("executed") - executed);
+        assertTrue(singleFlightCalls("coalesced") - coalesced >= 1);
+    }
+
+    private double singleFlightCalls(String result) {
+        return meterRegistry.get("plantify.upstream.single-flight.calls")
+                .tag("name", "perenual.article-faq-list")
+                .tag("result", result)
+                .counter().count();
+    }
+
+    @Test
+    void shouldPageAndStreamSpeciesCatalog() throws Exception {
+        for (int page = 1; page <= 2; page++) {
+            WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v2/species-list"))
+                    .withQueryParam("key", WireMock.matching(".*"))
+                    .withQueryParam("page", WireMock.equalTo(String.valueOf(page)))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                            .withBody("""
+                                    {
+                                        "data": [
+                                            {
+                                                "id": %d,
+                                                "common_name": "species %d",
+                                                "default_image": null
+                                            }
+                                        ],
+                                        "per_page": 1,
+                                        "current_page": %d,
+                                        "last_page": 2,
+                                        "total": 2
+                                    }
+                                    """.formatted(page, page, page))
+                    ));
+        }
 
+        perform(get("/api/plantify/guide/getAllPaged")
+                        .param("page", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("currentPage", is(2)))
+                .andExpect(jsonPath("lastPage", is(2)))
+                .andExpect(jsonPath("total", is(2)))
+                .andExpect(jsonPath("data[0].id", is("2")));
+
+        ResponseEntity<String> stream = restTemplate.getForEntity("/api/plantify/guide/getAll/stream", String.class);
+        List<String> lines = stream.getBody().lines().filter(line -> !line.isBlank()).toList();
+        assertEquals("false", stream.getHeaders().getFirst("X-Catalog-Truncated"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"id\":\"1\""));
+        assertTrue(lines.get(1).contains("\"id\":\"2\""));
+
+        Object maxUpstreamPages = ReflectionTestUtils.getField(guideService, "streamMaxUpstreamPages");
+        guideService.setStreamMaxUpstreamPages(1);
+        try {
+            ResponseEntity<String> truncated = restTemplate.getForEntity("/api/plantify/guide/getAll/stream", String.class);
+            assertEquals("true", truncated.getHeaders().getFirst("X-Catalog-Truncated"));
+            assertEquals(1, truncated.getBody().lines().filter(line -> !line.isBlank()).count());
+        } finally {
+            guideService.setStreamMaxUpstreamPages((int) maxUpstreamPages);
+        }
+    }
+
+    @Test
+    void shouldReturnPartialPlantProfileWithSectionStatuses() throws Exception {
+        String name = "strawberry";
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v2/species/details/183"))
+                .willReturn(aResponse().withStatus(500)));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/species-care-guide-list"))
+                .withQueryParam("q", WireMock.equalTo(name))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                    "data": [
+                                        {
+                                            "id": 9,
+                                            "species_id": 183,
+                                            "common_name": "Strawberry Tree",
+                                            "section": [
+                                                {"id": 26, "type": "watering", "description": "Water weekly."}
+                                            ]
+                                        }
+                                    ]
+                                }
+                                """)
+                ));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/article-faq-list"))
+                .withQueryParam("q", WireMock.equalTo(name))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"data\": []}")));
+
+        perform(get("/api/plantify/guide/profile")
+                        .param("speciesId", "183")
+                        .param("speciesName", name))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("details.status", is("ERROR")))
+                .andExpect(jsonPath("guide.status", is("OK")))
+                .andExpect(jsonPath("guide.data.speciesId", is("183")))
+                .andExpect(jsonPath("faq.status", is("NOT_FOUND")));
+    }
+
+    @Test
+    void shouldServeStaleCareGuidesWhilePerenualIsFailing() throws Exception {
+        String name = "lavender";
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/species-care-guide-list"))
+                .withQueryParam("q", WireMock.equalTo(name))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                    "data": [
+                                        {
+                                            "id": 701,
+                                            "species_id": 4350,
+                                            "common_name": "English lavender",
+                                            "section": []
+                                        }
+                                    ]
+                                }
+                                """)
+                ));
+
+        perform(get("/api/plantify/guide/getPlantsGuide").param("name", name))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Data-Age"))
+                .andExpect(header().doesNotExist("Age"))
+                .andExpect(jsonPath("$[0].speciesId", is("4350")));
+
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/species-care-guide-list"))
+                .withQueryParam("q", WireMock.equalTo(name))
+                .willReturn(aResponse().withStatus(503)));
+        Thread.sleep(10);
+
+        perform(get("/api/plantify/guide/getPlantsGuide").param("name", name))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Data-Stale", "true"))
+                .andExpect(jsonPath("$[0].speciesId", is("4350")));
+
+        for (int i = 0; i < 50 && wireMockServer.findAll(getRequestedFor(urlPathEqualTo("/species-care-guide-list"))).size() < 2; i++) {
+            Thread.sleep(20);
+        }
+        WireMock.verify(2, getRequestedFor(urlPathEqualTo("/species-care-guide-list")));
+
+        perform(get("/api/plantify/guide/getPlantsGuide").param("name", name))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].speciesId", is("4350")));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingETag() throws Exception {
+        String name = "rosemary";
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/species-care-guide-list"))
+                .withQueryParam("q", WireMock.equalTo(name))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                    "data": [
+                                        {
+                                            "id": 702,
+                                            "species_id": 4351,
+                                            "common_name": "Rosemary",
+                                            "section": []
+                                        }
+                                    ]
+                                }
+                                """)
+                ));
+
+        String etag = perform(get("/api/plantify/guide/getPlantsGuideById")
+                .param("speciesId", "4351")
+                .param("speciesName", name))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(etag != null && etag.startsWith("\"") && etag.endsWith("\""));
+
+        perform(get("/api/plantify/guide/getPlantsGuideById")
+                .param("speciesId", "4351")
+                .param("speciesName", name)
+                .header("If-None-Match", "\"other\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        perform(get("/api/plantify/guide/getPlantsGuideById")
+                .param("speciesId", "4351")
+                .param("speciesName", name)
+                .header("If-None-Match", "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.speciesId", is("4351")));
+
+        // A guide evicted from the care-guides cache is served from its cached list and stored again.
+        guideCache.getCareGuides().invalidate("4351");
+        perform(get("/api/plantify/guide/getPlantsGuideById")
+                .param("speciesId", "4351")
+                .param("speciesName", name)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertEquals(etag, guideCache.getCareGuides().getIfPresent("4351").etag());
+    }
+
+    @Test
+    void shouldServeGzippedSinglePlantFromResponseBytes() throws Exception {
+        String plantId = "184";
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v2/species/details/" + plantId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                    "id": 184,
+                                    "common_name": "Bay Laurel",
+                                    "scientific_name": ["Laurus nobilis"]
+                                }
+                                """)
+                ));
+
+        MvcResult identity = perform(get("/api/plantify/guide/getSinglePlant").param("id", plantId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.commonName", is("Bay Laurel")))
+                .andReturn();
+
+        MvcResult gzipped = perform(get("/api/plantify/guide/getSinglePlant")
+                .param("id", plantId)
+                .header("Accept-Encoding", "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        String etag = identity.getResponse().getHeader("ETag");
+        assertEquals(etag.substring(0, etag.length() - 1) + "-gzip\"", gzipped.getResponse().getHeader("ETag"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(identity.getResponse().getContentAsByteArray(), in.readAllBytes());
+        }
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/v2/species/details/" + plantId)));
+    }
+
+    @Test
+    void shouldAnswerRepeatedFAQMissFromNegativeCache() throws Exception {
+        String name = "strawbery";
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/article-faq-list"))
+                .withQueryParam("q", WireMock.equalTo(name))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                { "data": [] }
+                                """)
+                ));
+
+        for (int i = 0; i < 3; i++) {
+            perform(get("/api/plantify/guide/getPlantsFAQ").param("name", name))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message", is("No plants found for the given species.")));
+        }
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/article-faq-list")));
+
+        eventPublisher.publishEvent(new SpeciesCatalogUpdatedEvent(1));
+        perform(get("/api/plantify/guide/getPlantsFAQ").param("name", name))
+                .andExpect(status().isNotFound());
+        WireMock.verify(2, getRequestedFor(urlPathEqualTo("/article-faq-list")));
+    }
+
+    @Test
+    void shouldSkipSpeciesWhoseDetailsKeepFailing() {
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v2/species-list"))
+                .withQueryParam("page", WireMock.equalTo("1"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {
+                                    "data": [
+                                        { "id": 901, "common_name": "broken plant", "scientific_name": ["Brokenia"] },
+                                        { "id": 902, "common_name": "weeping fig", "scientific_name": ["Ficus benjamina"] },
+                                        { "id": 903, "common_name": "swiss cheese plant", "scientific_name": ["Monstera deliciosa"] }
+                                    ],
+                                    "per_page": 30,
+                                    "current_page": 1,
+                                    "last_page": 1,
+                                    "total": 3
+                                }
+                                """)
+                ));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v2/species/details/901"))
+                .willReturn(aResponse().withStatus(400)));
+        for (int id : new int[]{902, 903}) {
+            WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v2/species/details/" + id))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                            .withBody("{ \"id\": " + id + ", \"common_name\": \"plant " + id + "\" }")));
+        }
+
+        for (int run = 0; run < 4; run++) {
+            speciesSyncService.sync();
+        }
+
+        assertTrue(speciesRepository.findById(902).orElseThrow().getDetails() != null);
+        assertTrue(speciesRepository.findById(903).orElseThrow().getDetails() != null);
+        assertEquals(3, speciesRepository.findById(901).orElseThrow().getDetailsAttempts());
+        WireMock.verify(3, getRequestedFor(urlPathEqualTo("/v2/species/details/901")));
+        WireMock.verify(1, getRequestedFor(urlPathEqualTo("/v2/species/details/902")));
+    }
 }
@@ -0,0 +1,46 @@
+package project.plantify.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamBudgetTest {
+
+    @Test
+    void shouldShedBackgroundCallsBeforeInteractiveOnes() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamBudget budget = new UpstreamBudget("test", 4, 1000, 0.5, Duration.ZERO, meterRegistry);
+
+        StepVerifier.create(budget.acquire(UpstreamBudget.Priority.BACKGROUND)).verifyComplete();
+        StepVerifier.create(budget.acquire(UpstreamBudget.Priority.BACKGROUND)).verifyComplete();
+        StepVerifier.create(budget.acquire(UpstreamBudget.Priority.BACKGROUND))
+                .verifyError(UpstreamBudgetExceededException.class);
+
+        StepVerifier.create(budget.acquire(UpstreamBudget.Priority.INTERACTIVE)).verifyComplete();
+        StepVerifier.create(budget.acquire(UpstreamBudget.Priority.INTERACTIVE)).verifyComplete();
+        StepVerifier.create(budget.acquire(UpstreamBudget.Priority.INTERACTIVE))
+                .verifyError(UpstreamBudgetExceededException.class);
+
+        assertEquals(1.0, meterRegistry.get("plantify.upstream.budget.requests")
+                .tag("priority", "background").tag("result", "rejected").counter().count());
+        assertEquals(0.0, meterRegistry.get("plantify.upstream.budget.remaining")
+                .tag("window", "minute").gauge().value());
+    }
+
+    @Test
+    void shouldQueueInteractiveCallsUntilTheMinuteBucketRefills() {
+        UpstreamBudget budget = new UpstreamBudget("test", 600, 1000, 0, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        for (int i = 0; i < 600; i++) {
+            budget.acquire(UpstreamBudget.Priority.INTERACTIVE).block();
+        }
+
+        StepVerifier.create(budget.acquire(UpstreamBudget.Priority.INTERACTIVE))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(20))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,58 @@
+package project.plantify.upstream;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamCircuitBreakersTest {
+
+    @Test
+    void shouldOpenPerPathAndFailFastWithoutCallingUpstream() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamCircuitBreakers circuitBreakers = new UpstreamCircuitBreakers(Map.of("perenual", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build()), meterRegistry);
+        AtomicInteger exchanges = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://perenual.test")
+                .filter(circuitBreakers.filter("perenual"))
+                .exchangeFunction(request -> {
+                    exchanges.incrementAndGet();
+                    return Mono.just(ClientResponse.create(request.url().getPath().contains("details")
+                            ? HttpStatus.BAD_GATEWAY : HttpStatus.OK).build());
+                })
+                .build();
+
+        for (int id = 1; id <= 4; id++) {
+            StepVerifier.create(webClient.get().uri("/v2/species/details/" + id).retrieve().toBodilessEntity())
+                    .verifyError(WebClientResponseException.class);
+        }
+        StepVerifier.create(webClient.get().uri("/v2/species/details/5").retrieve().toBodilessEntity())
+                .verifyError(CallNotPermittedException.class);
+        StepVerifier.create(webClient.get().uri("/v2/species-list").retrieve().toBodilessEntity())
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(5, exchanges.get());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.get("perenual", "/v2/species/details/9").getState());
+        assertEquals(1.0, meterRegistry.get("plantify.upstream.circuit-breaker.transitions")
+                .tag("name", "perenual:/v2/species/details/{id}").tag("to", "OPEN").counter().count());
+    }
+}